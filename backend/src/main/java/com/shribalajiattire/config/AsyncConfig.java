@@ -0,0 +1,118 @@
+package com.shribalajiattire.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+    
+    public static final String PAYMENT_EXECUTOR = "paymentExecutor";
+    public static final String IMAGE_EXECUTOR = "imageExecutor";
+    public static final String STORAGE_EXECUTOR = "storageExecutor";
+    public static final String PASSWORD_EXECUTOR = "passwordExecutor";
+    
+    @Value("${app.payments.executor.pool-size}")
+    private int paymentPoolSize;
+    
+    @Value("${app.payments.executor.queue-capacity}")
+    private int paymentQueueCapacity;
+    
+    @Value("${app.upload.executor.pool-size}")
+    private int imagePoolSize;
+    
+    @Value("${app.upload.executor.queue-capacity}")
+    private int imageQueueCapacity;
+    
+    @Value("${app.upload.storage-executor.pool-size}")
+    private int storagePoolSize;
+    
+    @Value("${app.upload.storage-executor.queue-capacity}")
+    private int storageQueueCapacity;
+    
+    @Value("${app.auth.password-executor.pool-size}")
+    private int passwordPoolSize;
+    
+    @Value("${app.auth.password-executor.queue-capacity}")
+    private int passwordQueueCapacity;
+    
+    private final Environment environment;
+    
+    public AsyncConfig(Environment environment) {
+        this.environment = environment;
+    }
+    
+    @Bean(name = PAYMENT_EXECUTOR)
+    public AsyncTaskExecutor paymentExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualExecutor(paymentPoolSize + paymentQueueCapacity, "payment-");
+        }
+        return boundedExecutor(paymentPoolSize, paymentQueueCapacity, "payment-");
+    }
+    
+    /**
+     * Image resizing is CPU-bound, so it stays on a small platform pool even when
+     * virtual threads are enabled.
+     */
+    @Bean(name = IMAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor imageExecutor() {
+        return boundedExecutor(imagePoolSize, imageQueueCapacity, "image-");
+    }
+    
+    /**
+     * Upload writes. When the queue is full the request thread stores the file itself,
+     * which throttles the caller instead of failing the upload.
+     */
+    @Bean(name = STORAGE_EXECUTOR)
+    public AsyncTaskExecutor storageExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualExecutor(storagePoolSize + storageQueueCapacity, "storage-");
+        }
+        ThreadPoolTaskExecutor executor = boundedExecutor(storagePoolSize, storageQueueCapacity, "storage-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+    
+    /**
+     * BCrypt hashing. CPU-bound like image resizing, so always a platform pool; a full
+     * queue rejects the task and the request is answered with 429.
+     */
+    @Bean(name = PASSWORD_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordExecutor() {
+        return boundedExecutor(passwordPoolSize, passwordQueueCapacity, "password-");
+    }
+    
+    private static ThreadPoolTaskExecutor boundedExecutor(int poolSize, int queueCapacity, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+    
+    /**
+     * A virtual thread per task for I/O-bound work. The concurrency limit equals the
+     * platform pool's capacity (threads plus queue); beyond it submitters block, which
+     * is cheap on a virtual thread and throttles callers like a full queue would.
+     */
+    private static SimpleAsyncTaskExecutor virtualExecutor(int concurrencyLimit, String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+}
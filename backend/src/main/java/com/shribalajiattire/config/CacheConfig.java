@@ -0,0 +1,53 @@
+package com.shribalajiattire.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_SLUG = "productsBySlug";
+    public static final String USER_ROLES = "userRoles";
+    
+    @Value("${app.cache.products.max-size}")
+    private long productCacheMaxSize;
+    
+    @Value("${app.cache.products.ttl}")
+    private Duration productCacheTtl;
+    
+    @Value("${app.cache.user-roles.max-size}")
+    private long userRoleCacheMaxSize;
+    
+    @Value("${app.cache.user-roles.ttl}")
+    private Duration userRoleCacheTtl;
+    
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRODUCTS, productCache().build());
+        cacheManager.registerCustomCache(PRODUCTS_BY_SLUG, productCache().build());
+        // Short TTL bounds how long a revoked user's tokens keep working
+        cacheManager.registerCustomCache(USER_ROLES, Caffeine.newBuilder()
+                .maximumSize(userRoleCacheMaxSize)
+                .expireAfterWrite(userRoleCacheTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+    
+    private Caffeine<Object, Object> productCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(productCacheMaxSize)
+                .expireAfterWrite(productCacheTtl)
+                .recordStats();
+    }
+}
@@ -0,0 +1,26 @@
+package com.shribalajiattire.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Hashes catalog listing responses into ETags when several instances serve the catalog.
+ * The in-memory catalog version only sees this instance's writes, so it cannot validate
+ * listings another instance may have changed. Product detail ETags are already hashed
+ * from the cached payload and need no filter.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.catalog.single-instance", havingValue = "false")
+public class CatalogEtagConfig {
+    
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> catalogListingEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/products", "/api/products/facets");
+        return registration;
+    }
+}
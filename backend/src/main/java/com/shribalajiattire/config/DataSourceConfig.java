@@ -0,0 +1,62 @@
+package com.shribalajiattire.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.limiter.enabled", havingValue = "true")
+public class DataSourceConfig {
+    
+    /**
+     * Wraps each pool in a {@link ConnectionLimitingDataSource} with as many permits as
+     * that pool has connections, so the primary and replica are limited separately.
+     * Pools that do not report a size get {@code max-connections}. Static, and bound
+     * straight from the environment, because post-processors are created before
+     * regular beans. Delegating data sources, such as the read/write router's lazy
+     * proxy, are left alone so that a connection is only limited once, by its pool.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        int maxConnections = binder.bind("app.datasource.limiter.max-connections", Integer.class).get();
+        Duration acquireTimeout = binder.bind("app.datasource.limiter.acquire-timeout", Duration.class).get();
+        
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    int permits = dataSource instanceof HikariDataSource hikari
+                            ? hikari.getMaximumPoolSize()
+                            : maxConnections;
+                    return new ConnectionLimitingDataSource(dataSource, permits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder connectionLimiterMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("db.connection.limiter.available", limiter,
+                        ConnectionLimitingDataSource::getAvailablePermits).tag("name", name).register(registry);
+                Gauge.builder("db.connection.limiter.waiting", limiter,
+                        ConnectionLimitingDataSource::getWaitingThreads).tag("name", name).register(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.shribalajiattire.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits the database into a primary pool for writes and a replica pool for read-only
+ * transactions. The application's {@link DataSource} routes between them per
+ * transaction; Flyway and anything running outside a read-only transaction use the
+ * primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+    
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+    
+    @Bean(name = PRIMARY_DATA_SOURCE)
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean(name = REPLICA_DATA_SOURCE)
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username}") String username,
+                                              @Value("${app.datasource.replica.password}") String password,
+                                              @Value("${app.datasource.replica.pool-size}") int poolSize,
+                                              @Value("${spring.datasource.hikari.connection-timeout}") long connectionTimeout) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setConnectionTimeout(connectionTimeout);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+                                               @Value("${app.datasource.replica.max-lag}") Duration maxLag,
+                                               @Value("${app.datasource.replica.lag-check-interval}") Duration checkInterval,
+                                               @Value("${app.datasource.replica.lag-query:}") String lagQuery) {
+        return new ReplicaLagMonitor(replica, maxLag, checkInterval, lagQuery);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primary,
+                                 @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+    }
+    
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaLagMonitor lagMonitor) {
+        return registry -> {
+            Gauge.builder("db.replica.usable", lagMonitor, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                    .register(registry);
+            Gauge.builder("db.replica.lag", lagMonitor,
+                            monitor -> monitor.getLag() != null ? monitor.getLag().toMillis() / 1000.0 : Double.NaN)
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.shribalajiattire.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica's replication lag in the background so routing decisions never wait
+ * on it. The replica is usable while the last check succeeded and measured a lag within
+ * {@code maxLag}; unknown lag, a stopped replication thread or an unreachable replica all
+ * send reads back to the primary until a later check passes.
+ * <p>
+ * A configured lag query wins, for example one reading a heartbeat table; it must return
+ * the lag in seconds, or null when unknown. Without one, MySQL replicas report
+ * {@code Seconds_Behind_Source}, a MySQL server that is not replicating counts as current,
+ * and other databases only need to answer a validity check.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+    
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final ScheduledExecutorService scheduler;
+    
+    private volatile boolean replicaUsable;
+    private volatile Duration lag;
+    
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval, String lagQuery) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+    
+    /**
+     * Lag measured by the last successful check, or null when it is unknown.
+     */
+    public Duration getLag() {
+        return lag;
+    }
+    
+    void check() {
+        boolean usable;
+        try {
+            lag = measureLag();
+            usable = lag != null && lag.compareTo(maxLag) <= 0;
+        } catch (SQLException | RuntimeException e) {
+            lag = null;
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag check failed: {}", e.getMessage());
+            }
+        }
+    
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Routing read-only transactions to the replica, lag {}", lag);
+            } else {
+                log.warn("Routing read-only transactions to the primary, replica lag {} exceeds {}", lag, maxLag);
+            }
+            replicaUsable = usable;
+        }
+    }
+    
+    private Duration measureLag() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (lagQuery != null) {
+                try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    double seconds = rs.getDouble(1);
+                    return rs.wasNull() ? null : Duration.ofMillis(Math.round(seconds * 1000));
+                }
+            }
+            if (connection.getMetaData().getDatabaseProductName().startsWith("MySQL")) {
+                try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                    if (!rs.next()) {
+                        return Duration.ZERO;
+                    }
+                    long seconds = rs.getLong("Seconds_Behind_Source");
+                    return rs.wasNull() ? null : Duration.ofSeconds(seconds);
+                }
+            }
+            return connection.isValid(1) ? Duration.ZERO : null;
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
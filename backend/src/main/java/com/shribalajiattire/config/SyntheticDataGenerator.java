@@ -0,0 +1,572 @@
+package com.shribalajiattire.config;
+
+import com.shribalajiattire.model.Order.OrderStatus;
+import com.shribalajiattire.model.User;
+import com.shribalajiattire.service.SalesRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads a deterministic synthetic catalog, customer base and order history for
+ * load tests and query tuning. The same seed and sizes always produce the same rows:
+ * products follow a Zipfian popularity curve, repeat customers are skewed the same way,
+ * and order volume follows festival seasons, weekends and evening hours.
+ * <p>
+ * Rows are written with batched JDBC rather than through JPA. Order and item ids are
+ * reserved from the same pooled sequences Hibernate allocates from, so orders placed
+ * through the application afterwards never collide with generated ones. On MySQL add
+ * {@code rewriteBatchedStatements=true} to the JDBC URL, otherwise every batched row is
+ * still its own round trip. Runs once: a database that already holds generated
+ * products is left alone.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.datagen.enabled", havingValue = "true")
+public class SyntheticDataGenerator {
+    
+    static final String SKU_PREFIX = "GEN-";
+    static final String EMAIL_PREFIX = "datagen-";
+    static final String EMAIL_DOMAIN = "@example.com";
+    static final String PASSWORD = "customer123";
+    
+    /** Matches the allocation size of the order and order item sequence generators. */
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final int ROLLUP_WINDOW_DAYS = 31;
+    
+    private static final double PRODUCT_POPULARITY_SKEW = 1.07;
+    private static final double CUSTOMER_ACTIVITY_SKEW = 0.8;
+    
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (name, slug, sku, description, price_cents, currency, stock, active, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SIZE = "INSERT INTO product_sizes (product_id, size) VALUES (?, ?)";
+    private static final String INSERT_COLOR = "INSERT INTO product_colors (product_id, color) VALUES (?, ?)";
+    private static final String INSERT_IMAGE =
+            "INSERT INTO product_images (product_id, url, alt_text, srcset, display_order) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_USER =
+            "INSERT INTO users (name, email, password, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (id, user_id, total_cents, currency, full_name, address_line1, address_line2, " +
+            "city, state, postal_code, country, phone, status, payment_id, payment_method, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM =
+            "INSERT INTO order_items (id, order_id, product_id, quantity, unit_price_cents, size, color) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String COUNT_GENERATED = "SELECT COUNT(*) FROM products WHERE sku LIKE '" + SKU_PREFIX + "%'";
+    private static final String SELECT_PRODUCT_IDS = "SELECT id, sku FROM products WHERE sku BETWEEN ? AND ?";
+    private static final String SELECT_USER_IDS = "SELECT id, email FROM users WHERE email BETWEEN ? AND ?";
+    
+    private static final String[] STYLES = {"Classic", "Festive", "Royal", "Everyday", "Handloom", "Designer",
+            "Embroidered", "Printed", "Bandhani", "Zari", "Chikankari", "Block Print"};
+    private static final String[] FABRICS = {"Cotton", "Silk", "Linen", "Georgette", "Chanderi", "Khadi",
+            "Rayon", "Velvet", "Crepe", "Organza"};
+    private static final String[] GARMENTS = {"Kurta", "Saree", "Sherwani", "Lehenga", "Dupatta", "Nehru Jacket",
+            "Anarkali", "Formal Shirt", "Kurta Set", "Dhoti"};
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL", "XXL"};
+    private static final String[] COLORS = {"White", "Ivory", "Black", "Navy", "Maroon", "Red", "Pink", "Peach",
+            "Mustard", "Yellow", "Green", "Teal", "Blue", "Purple", "Grey", "Gold"};
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Arjun", "Rohan", "Karan", "Rahul",
+            "Ishaan", "Ananya", "Diya", "Priya", "Kavya", "Sneha", "Meera", "Pooja", "Neha", "Lakshmi", "Sai"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Patel", "Reddy", "Iyer", "Nair", "Gupta",
+            "Singh", "Kumar", "Joshi", "Mehta", "Rao", "Das", "Bose", "Agarwal", "Pillai"};
+    private static final String[][] CITIES = {{"Mumbai", "Maharashtra", "400"}, {"Pune", "Maharashtra", "411"},
+            {"Delhi", "Delhi", "110"}, {"Bengaluru", "Karnataka", "560"}, {"Chennai", "Tamil Nadu", "600"},
+            {"Hyderabad", "Telangana", "500"}, {"Kolkata", "West Bengal", "700"}, {"Ahmedabad", "Gujarat", "380"},
+            {"Jaipur", "Rajasthan", "302"}, {"Lucknow", "Uttar Pradesh", "226"}, {"Kochi", "Kerala", "682"}};
+    
+    /** Relative order volume per month: wedding season, end-of-season sales and Navratri to Diwali. */
+    private static final double[] MONTH_WEIGHTS = {1.15, 1.05, 0.9, 0.85, 0.8, 0.8, 1.0, 1.05, 1.0, 1.6, 1.45, 1.2};
+    /** Relative order volume per hour of day, peaking after work. */
+    private static final double[] HOUR_WEIGHTS = {0.5, 0.3, 0.15, 0.1, 0.1, 0.15, 0.3, 0.6, 0.9, 1.1, 1.2, 1.3,
+            1.4, 1.4, 1.3, 1.2, 1.2, 1.3, 1.5, 1.8, 2.1, 2.2, 1.8, 1.0};
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SalesRollupService salesRollupService;
+    private final long seed;
+    private final int productCount;
+    private final int userCount;
+    private final int orderCount;
+    private final int historyDays;
+    private final int batchSize;
+    
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  PasswordEncoder passwordEncoder,
+                                  SalesRollupService salesRollupService,
+                                  @Value("${app.datagen.seed}") long seed,
+                                  @Value("${app.datagen.products}") int productCount,
+                                  @Value("${app.datagen.users}") int userCount,
+                                  @Value("${app.datagen.orders}") int orderCount,
+                                  @Value("${app.datagen.history-days}") int historyDays,
+                                  @Value("${app.datagen.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.salesRollupService = salesRollupService;
+        this.seed = seed;
+        this.productCount = productCount;
+        this.userCount = userCount;
+        this.orderCount = orderCount;
+        this.historyDays = historyDays;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Runs after the startup runners have seeded the default users, and ahead of the
+     * search, facet and rollup listeners so they start from the generated data.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Long existing = jdbcTemplate.queryForObject(COUNT_GENERATED, Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Skipping synthetic data generation, {} generated products already exist", existing);
+            return;
+        }
+        generate(LocalDate.now());
+    }
+    
+    /**
+     * Generates the configured volume of products, users and orders, with orders spread
+     * over the {@code history-days} ending on {@code today}.
+     */
+    public void generate(LocalDate today) {
+        long started = System.nanoTime();
+        LocalDate firstDay = today.minusDays(historyDays - 1L);
+    
+        Catalog catalog = generateProducts(firstDay);
+        long[] userIds = generateUsers(firstDay);
+        long[] totals = generateOrders(catalog, userIds, firstDay, today);
+        for (LocalDate from = firstDay; !from.isAfter(today); from = from.plusDays(ROLLUP_WINDOW_DAYS)) {
+            LocalDate to = from.plusDays(ROLLUP_WINDOW_DAYS - 1L);
+            salesRollupService.recompute(from, to.isAfter(today) ? today : to);
+        }
+    
+        log.info("Generated {} products, {} images, {} users, {} orders and {} order items with seed {} in {} s",
+                productCount, catalog.imageCount, userIds.length, totals[0], totals[1], seed,
+                (System.nanoTime() - started) / 1_000_000_000);
+    }
+    
+    private Catalog generateProducts(LocalDate firstDay) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Catalog catalog = new Catalog(productCount);
+        List<Object[]> products = new ArrayList<>(batchSize);
+    
+        for (int start = 0; start < productCount; start += batchSize) {
+            int end = Math.min(start + batchSize, productCount);
+            products.clear();
+            for (int i = start; i < end; i++) {
+                String name = STYLES[random.nextInt(STYLES.length)] + " " + FABRICS[random.nextInt(FABRICS.length)]
+                        + " " + GARMENTS[random.nextInt(GARMENTS.length)];
+                long rupees = Math.max(299, Math.min(49_999, Math.round(Math.exp(7.3 + 0.65 * random.nextGaussian()))));
+                catalog.priceCents[i] = (rupees / 100 * 100 + 99) * 100;
+                catalog.sizeFrom[i] = (byte) random.nextInt(3);
+                catalog.sizeCount[i] = (byte) (2 + random.nextInt(SIZES.length - 1 - catalog.sizeFrom[i]));
+                catalog.colorFrom[i] = (byte) random.nextInt(COLORS.length);
+                catalog.colorCount[i] = (byte) (1 + random.nextInt(3));
+                catalog.imageCount += catalog.images[i] = (byte) (1 + random.nextInt(5));
+                Timestamp createdAt = Timestamp.valueOf(firstDay.atStartOfDay()
+                        .minusDays(random.nextInt(365))
+                        .plusSeconds(random.nextInt(86_400)));
+                products.add(new Object[]{
+                        name,
+                        slug(name) + "-" + (i + 1),
+                        sku(i),
+                        name + " in " + COLORS[catalog.colorFrom[i]].toLowerCase() + ", generated for testing.",
+                        catalog.priceCents[i],
+                        "INR",
+                        random.nextInt(20) == 0 ? 0 : 5 + random.nextInt(500),
+                        random.nextInt(33) != 0,
+                        createdAt,
+                        createdAt});
+            }
+    
+            int from = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_PRODUCT, products);
+                jdbcTemplate.query(SELECT_PRODUCT_IDS, rs -> {
+                    catalog.ids[Integer.parseInt(rs.getString("sku").substring(SKU_PREFIX.length()))] = rs.getLong("id");
+                }, sku(from), sku(end - 1));
+                insertProductDetails(catalog, from, end);
+            });
+        }
+    
+        log.info("Generated {} products", productCount);
+        return catalog;
+    }
+    
+    private void insertProductDetails(Catalog catalog, int start, int end) {
+        List<Object[]> sizes = new ArrayList<>();
+        List<Object[]> colors = new ArrayList<>();
+        List<Object[]> images = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            long id = catalog.ids[i];
+            for (int s = 0; s < catalog.sizeCount[i]; s++) {
+                sizes.add(new Object[]{id, SIZES[catalog.sizeFrom[i] + s]});
+            }
+            for (int c = 0; c < catalog.colorCount[i]; c++) {
+                colors.add(new Object[]{id, color(catalog, i, c)});
+            }
+            for (int n = 0; n < catalog.images[i]; n++) {
+                String url = "https://via.placeholder.com/600x800?text=" + sku(i) + "-" + (n + 1);
+                images.add(new Object[]{id, url, sku(i) + " view " + (n + 1), null, n});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SIZE, sizes);
+        jdbcTemplate.batchUpdate(INSERT_COLOR, colors);
+        jdbcTemplate.batchUpdate(INSERT_IMAGE, images);
+    }
+    
+    private long[] generateUsers(LocalDate firstDay) {
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        // Every generated customer shares the same password, so hash it once instead of per row
+        String password = passwordEncoder.encode(PASSWORD);
+        long[] ids = new long[userCount];
+        List<Object[]> users = new ArrayList<>(batchSize);
+    
+        for (int start = 0; start < userCount; start += batchSize) {
+            int end = Math.min(start + batchSize, userCount);
+            users.clear();
+            for (int i = start; i < end; i++) {
+                Timestamp createdAt = Timestamp.valueOf(firstDay.atStartOfDay()
+                        .minusDays(30)
+                        .plusSeconds(random.nextLong(86_400L * (historyDays + 30))));
+                users.add(new Object[]{
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        email(i),
+                        password,
+                        User.Role.CUSTOMER.name(),
+                        createdAt,
+                        createdAt});
+            }
+    
+            int from = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, users);
+                jdbcTemplate.query(SELECT_USER_IDS, rs -> {
+                    String email = rs.getString("email");
+                    ids[Integer.parseInt(email.substring(EMAIL_PREFIX.length(), email.indexOf('@')))] = rs.getLong("id");
+                }, email(from), email(end - 1));
+            });
+        }
+    
+        log.info("Generated {} users, password '{}'", userCount, PASSWORD);
+        return ids;
+    }
+    
+    private long[] generateOrders(Catalog catalog, long[] userIds, LocalDate firstDay, LocalDate today) {
+        if (orderCount == 0 || productCount == 0 || userCount == 0) {
+            return new long[]{0, 0};
+        }
+        SplittableRandom random = new SplittableRandom(seed + 2);
+        ZipfSampler products = new ZipfSampler(productCount, PRODUCT_POPULARITY_SKEW, random);
+        ZipfSampler customers = new ZipfSampler(userCount, CUSTOMER_ACTIVITY_SKEW, random);
+        double[] dayWeights = dayWeights(firstDay, random);
+        double[] hourCdf = cumulative(HOUR_WEIGHTS);
+        double totalWeight = Arrays.stream(dayWeights).sum();
+    
+        List<GeneratedOrder> batch = new ArrayList<>(batchSize);
+        long orders = 0;
+        long items = 0;
+        double cumulativeWeight = 0;
+        for (int day = 0; day < historyDays; day++) {
+            // Rounding the running total hands out exactly orderCount orders across the days
+            long before = Math.round(orderCount * cumulativeWeight / totalWeight);
+            cumulativeWeight += dayWeights[day];
+            int dayOrders = (int) (Math.round(orderCount * cumulativeWeight / totalWeight) - before);
+    
+            LocalDate date = firstDay.plusDays(day);
+            long[] seconds = new long[dayOrders];
+            for (int i = 0; i < dayOrders; i++) {
+                seconds[i] = 3600L * sample(hourCdf, random) + random.nextInt(3600);
+            }
+            Arrays.sort(seconds);
+    
+            for (long second : seconds) {
+                LocalDateTime createdAt = date.atStartOfDay().plusSeconds(second);
+                batch.add(generateOrder(catalog, userIds, products, customers, createdAt,
+                        today.toEpochDay() - day - firstDay.toEpochDay(), random));
+                if (batch.size() == batchSize) {
+                    items += flush(batch);
+                }
+            }
+            orders += dayOrders;
+        }
+        items += flush(batch);
+        return new long[]{orders, items};
+    }
+    
+    private GeneratedOrder generateOrder(Catalog catalog, long[] userIds, ZipfSampler products, ZipfSampler customers,
+                                         LocalDateTime createdAt, long ageDays, SplittableRandom random) {
+        int lineCount = 1;
+        while (lineCount < 6 && random.nextDouble() < 0.45) {
+            lineCount++;
+        }
+    
+        List<GeneratedItem> lines = new ArrayList<>(lineCount);
+        long totalCents = 0;
+        for (int l = 0; l < lineCount; l++) {
+            int product = products.sample(random);
+            if (lines.stream().anyMatch(line -> line.product() == product)) {
+                continue;
+            }
+            double roll = random.nextDouble();
+            int quantity = roll < 0.8 ? 1 : roll < 0.95 ? 2 : 3;
+            String size = SIZES[catalog.sizeFrom[product] + random.nextInt(catalog.sizeCount[product])];
+            String color = color(catalog, product, random.nextInt(catalog.colorCount[product]));
+            lines.add(new GeneratedItem(product, catalog.ids[product], catalog.priceCents[product],
+                    quantity, size, color));
+            totalCents += quantity * catalog.priceCents[product];
+        }
+    
+        OrderStatus status = status(ageDays, random);
+        String[] city = CITIES[random.nextInt(CITIES.length)];
+        return new GeneratedOrder(
+                userIds[customers.sample(random)],
+                totalCents,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                (1 + random.nextInt(400)) + ", " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " Nagar",
+                city,
+                city[2] + String.format("%03d", random.nextInt(100)),
+                String.format("9%09d", random.nextInt(1_000_000_000)),
+                status,
+                status == OrderStatus.PENDING ? null : "pi_gen_" + Long.toHexString(random.nextLong()),
+                random.nextInt(10) == 0 ? "mock" : "stripe",
+                createdAt,
+                createdAt.plusHours(status == OrderStatus.PENDING ? 0 : 1 + random.nextInt(72)),
+                lines);
+    }
+    
+    /** Older orders have mostly run their course; recent ones are still moving through fulfilment. */
+    private static OrderStatus status(long ageDays, SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (ageDays >= 10) {
+            return roll < 0.92 ? OrderStatus.DELIVERED : OrderStatus.CANCELLED;
+        }
+        if (ageDays >= 3) {
+            return roll < 0.35 ? OrderStatus.DELIVERED
+                    : roll < 0.85 ? OrderStatus.SHIPPED
+                    : roll < 0.92 ? OrderStatus.PROCESSING
+                    : OrderStatus.CANCELLED;
+        }
+        return roll < 0.2 ? OrderStatus.PENDING
+                : roll < 0.55 ? OrderStatus.PAID
+                : roll < 0.85 ? OrderStatus.PROCESSING
+                : roll < 0.95 ? OrderStatus.SHIPPED
+                : OrderStatus.CANCELLED;
+    }
+    
+    private long flush(List<GeneratedOrder> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int itemCount = batch.stream().mapToInt(order -> order.items().size()).sum();
+        long[] orderIds = reserveIds("order_seq", batch.size());
+        long[] itemIds = reserveIds("order_item_seq", itemCount);
+    
+        List<Object[]> orders = new ArrayList<>(batch.size());
+        List<Object[]> items = new ArrayList<>(itemCount);
+        int item = 0;
+        for (int o = 0; o < batch.size(); o++) {
+            GeneratedOrder order = batch.get(o);
+            orders.add(new Object[]{orderIds[o], order.userId(), order.totalCents(), "INR", order.fullName(),
+                    order.addressLine1(), null, order.city()[0], order.city()[1], order.postalCode(), "India",
+                    order.phone(), order.status().name(), order.paymentId(), order.paymentMethod(),
+                    Timestamp.valueOf(order.createdAt()), Timestamp.valueOf(order.updatedAt())});
+            for (GeneratedItem line : order.items()) {
+                items.add(new Object[]{itemIds[item++], orderIds[o], line.productId(),
+                        line.quantity(), line.unitPriceCents(), line.size(), line.color()});
+            }
+        }
+    
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER, orders);
+            jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, items);
+        });
+        batch.clear();
+        return itemCount;
+    }
+    
+    /**
+     * Reserves at least {@code count} ids from a pooled sequence the way Hibernate's
+     * pooled optimizer does: each value drawn is the top of a block of
+     * {@value #ID_BLOCK_SIZE} ids that nothing else will hand out.
+     */
+    private long[] reserveIds(String sequence, int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE + 1;
+        long[] tops = jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            String database = connection.getMetaData().getDatabaseProductName();
+            long[] values = new long[blocks];
+            if (database.startsWith("H2")) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(
+                             "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, " + blocks + ")")) {
+                    for (int i = 0; rs.next(); i++) {
+                        values[i] = rs.getLong(1);
+                    }
+                }
+            } else if (database.startsWith("MySQL")) {
+                // Hibernate emulates the sequence as a single-row table; bump it by every block at once
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE " + sequence + " SET next_val = LAST_INSERT_ID(next_val + ?)")) {
+                    update.setLong(1, (long) blocks * ID_BLOCK_SIZE);
+                    update.executeUpdate();
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    rs.next();
+                    long next = rs.getLong(1);
+                    for (int i = 0; i < blocks; i++) {
+                        values[i] = next - (long) (blocks - i) * ID_BLOCK_SIZE;
+                    }
+                }
+            } else {
+                throw new IllegalStateException("Synthetic data generation does not support " + database);
+            }
+            return values;
+        });
+    
+        long[] ids = new long[count];
+        int next = 0;
+        for (long top : tops) {
+            // Hibernate skips a first value below the block size, so never hand out those ids either
+            for (long id = top - ID_BLOCK_SIZE + 1; top >= ID_BLOCK_SIZE && id <= top && next < count; id++) {
+                ids[next++] = id;
+            }
+        }
+        return ids;
+    }
+    
+    private double[] dayWeights(LocalDate firstDay, SplittableRandom random) {
+        double[] weights = new double[historyDays];
+        for (int day = 0; day < historyDays; day++) {
+            LocalDate date = firstDay.plusDays(day);
+            double growth = 0.6 + 0.8 * day / Math.max(1, historyDays - 1);
+            double weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY
+                    ? 1.3 : 1.0;
+            double noise = Math.exp(0.15 * random.nextGaussian());
+            weights[day] = growth * MONTH_WEIGHTS[date.getMonthValue() - 1] * weekend * noise;
+        }
+        return weights;
+    }
+    
+    private static double[] cumulative(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cdf[i] = total;
+        }
+        return cdf;
+    }
+    
+    private static int sample(double[] cdf, SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble() * cdf[cdf.length - 1]);
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+    
+    private static String color(Catalog catalog, int product, int offset) {
+        return COLORS[(catalog.colorFrom[product] + offset) % COLORS.length];
+    }
+    
+    static String sku(int index) {
+        return String.format(SKU_PREFIX + "%07d", index);
+    }
+    
+    static String email(int index) {
+        return String.format(EMAIL_PREFIX + "%07d" + EMAIL_DOMAIN, index);
+    }
+    
+    private static String slug(String name) {
+        return name.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+    }
+    
+    /**
+     * Draws ranks from a Zipf distribution and maps them through a fixed shuffle, so the
+     * most popular items are scattered across the id range rather than being the first ones.
+     */
+    private static final class ZipfSampler {
+    
+        private final double[] cdf;
+        private final int[] itemsByRank;
+    
+        ZipfSampler(int size, double skew, SplittableRandom random) {
+            double[] weights = new double[size];
+            for (int rank = 0; rank < size; rank++) {
+                weights[rank] = 1 / Math.pow(rank + 1, skew);
+            }
+            cdf = cumulative(weights);
+            itemsByRank = new int[size];
+            for (int i = 0; i < size; i++) {
+                itemsByRank[i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = itemsByRank[i];
+                itemsByRank[i] = itemsByRank[j];
+                itemsByRank[j] = swap;
+            }
+        }
+    
+        int sample(SplittableRandom random) {
+            return itemsByRank[SyntheticDataGenerator.sample(cdf, random)];
+        }
+    }
+    
+    /** Per-product attributes kept in parallel arrays so millions of products stay cheap to hold. */
+    private static final class Catalog {
+    
+        final long[] ids;
+        final long[] priceCents;
+        final byte[] sizeFrom;
+        final byte[] sizeCount;
+        final byte[] colorFrom;
+        final byte[] colorCount;
+        final byte[] images;
+        long imageCount;
+    
+        Catalog(int size) {
+            ids = new long[size];
+            priceCents = new long[size];
+            sizeFrom = new byte[size];
+            sizeCount = new byte[size];
+            colorFrom = new byte[size];
+            colorCount = new byte[size];
+            images = new byte[size];
+        }
+    }
+    
+    private record GeneratedItem(int product, long productId, long unitPriceCents, int quantity, String size,
+                                 String color) {
+    }
+    
+    private record GeneratedOrder(long userId, long totalCents, String fullName, String addressLine1, String[] city,
+                                  String postalCode, String phone, OrderStatus status, String paymentId,
+                                  String paymentMethod, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                  List<GeneratedItem> items) {
+    }
+}
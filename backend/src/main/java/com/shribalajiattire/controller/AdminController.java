@@ -1,18 +1,31 @@
 package com.shribalajiattire.controller;
 
+import com.shribalajiattire.dto.CatalogImportResult;
 import com.shribalajiattire.dto.CreateProductRequest;
+import com.shribalajiattire.dto.CursorPage;
 import com.shribalajiattire.dto.OrderDTO;
 import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.SalesReportDTO;
+import com.shribalajiattire.model.SalesRollup;
+import com.shribalajiattire.service.CatalogFormat;
+import com.shribalajiattire.service.CatalogService;
 import com.shribalajiattire.service.OrderService;
 import com.shribalajiattire.service.ProductService;
+import com.shribalajiattire.service.SalesRollupService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +36,8 @@ public class AdminController {
     
     private final ProductService productService;
     private final OrderService orderService;
+    private final CatalogService catalogService;
+    private final SalesRollupService salesRollupService;
     
     @PostMapping(value = "/products", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ProductDTO> createProduct(
@@ -47,6 +62,31 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
     
+    /**
+     * Streams the request body straight into the importer rather than going through
+     * multipart handling, so catalog size is not bounded by the upload limits.
+     */
+    @PostMapping(value = "/products/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<CatalogImportResult> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        CatalogImportResult result = catalogService.importCatalog(body, CatalogFormat.fromMediaType(contentType));
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format) {
+        CatalogFormat catalogFormat = CatalogFormat.fromExtension(format);
+        return ResponseEntity.ok()
+                .contentType(catalogFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("catalog." + catalogFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(output -> catalogService.exportCatalog(output, catalogFormat));
+    }
+    
     @GetMapping("/orders")
     public ResponseEntity<Page<OrderDTO>> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
@@ -55,6 +95,14 @@ public class AdminController {
         return ResponseEntity.ok(orders);
     }
     
+    @GetMapping(value = "/orders", params = "cursor")
+    public ResponseEntity<CursorPage<OrderDTO>> getAllOrdersAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPage<OrderDTO> orders = orderService.getAllOrdersAfter(cursor, size);
+        return ResponseEntity.ok(orders);
+    }
+    
     @PutMapping("/orders/{id}/status")
     public ResponseEntity<OrderDTO> updateOrderStatus(
             @PathVariable Long id,
@@ -68,4 +116,21 @@ public class AdminController {
     public ResponseEntity<OrderService.OrderAnalytics> getAnalytics() {
         return ResponseEntity.ok(orderService.getAnalytics());
     }
+    
+    @GetMapping("/analytics/sales")
+    public ResponseEntity<SalesReportDTO> getSalesReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") SalesRollup.Granularity granularity,
+            @RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(salesRollupService.getReport(from, to, granularity, top));
+    }
+    
+    @PostMapping("/analytics/recompute")
+    public ResponseEntity<SalesReportDTO> recomputeSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        salesRollupService.recompute(from, to);
+        return ResponseEntity.ok(salesRollupService.getReport(from, to, SalesRollup.Granularity.DAY, 0));
+    }
 }
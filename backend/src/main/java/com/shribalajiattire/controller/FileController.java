@@ -1,39 +1,90 @@
 package com.shribalajiattire.controller;
 
 import com.shribalajiattire.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/uploads")
 @RequiredArgsConstructor
 public class FileController {
     
+    // Tomcat's own DefaultServlet threshold: below this a buffered copy is cheaper than sendfile
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    // Upload names are SHA-256 hashes of the content, so a URL's content never changes
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+    
     private final FileStorageService fileStorageService;
     
     @GetMapping("/{filename:.+}")
-    public ResponseEntity<Resource> getFile(@PathVariable String filename) {
+    public ResponseEntity<Resource> getFile(@PathVariable String filename,
+                                            @RequestParam(name = "w", required = false) Integer width,
+                                            WebRequest webRequest, HttpServletRequest request) {
         try {
-            Path filePath = fileStorageService.loadFile(filename);
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_JPEG)
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                        .body(resource);
-            } else {
+            Path filePath = width == null ? fileStorageService.loadFile(filename)
+                    : fileStorageService.loadVariant(filename, width);
+            // Derivative not written yet: serve the original, but let the client come back for it
+            CacheControl cacheControl = filePath == null ? CacheControl.noCache() : IMMUTABLE;
+            if (filePath == null) {
+                filePath = fileStorageService.loadFile(filename);
+            }
+            if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
                 return ResponseEntity.notFound().build();
             }
-        } catch (Exception e) {
+            
+            long length = Files.size(filePath);
+            long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+            String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+            if (webRequest.checkNotModified(etag, lastModified)) {
+                return null;
+            }
+            
+            Resource resource = new FileSystemResource(filePath);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+            
+            if (canSendfile(request, length)) {
+                // Headers only: the connector streams the file from the page cache after we return
+                request.setAttribute(SENDFILE_FILENAME, filePath.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+                return response.contentLength(length).build();
+            }
+            // Range requests are answered with 206 by Spring's resource region support
+            return response.body(resource);
+        } catch (IOException e) {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    private static boolean canSendfile(HttpServletRequest request, long length) {
+        return "GET".equals(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && length >= SENDFILE_MIN_SIZE
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+    }
 }
@@ -1,6 +1,7 @@
 package com.shribalajiattire.controller;
 
 import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.CursorPage;
 import com.shribalajiattire.dto.OrderDTO;
 import com.shribalajiattire.security.UserPrincipal;
 import com.shribalajiattire.service.OrderService;
@@ -35,6 +36,15 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
     
+    @GetMapping(value = "/orders", params = "cursor")
+    public ResponseEntity<CursorPage<OrderDTO>> getUserOrdersAfter(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPage<OrderDTO> orders = orderService.getUserOrdersAfter(userPrincipal.getId(), cursor, size);
+        return ResponseEntity.ok(orders);
+    }
+    
     @GetMapping("/orders/{id}")
     public ResponseEntity<OrderDTO> getOrderById(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -1,23 +1,49 @@
 package com.shribalajiattire.controller;
 
-import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.CursorPage;
+import com.shribalajiattire.dto.FacetedProductsDTO;
+import com.shribalajiattire.dto.ProductJson;
+import com.shribalajiattire.service.CatalogVersion;
+import com.shribalajiattire.service.ProductPayloadCache;
 import com.shribalajiattire.service.ProductService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
-@RequiredArgsConstructor
 public class ProductController {
     
     private final ProductService productService;
+    private final ProductPayloadCache productPayloadCache;
+    private final CatalogVersion catalogVersion;
+    private final boolean singleInstance;
+    private final CacheControl cacheControl;
+    
+    public ProductController(ProductService productService,
+                             ProductPayloadCache productPayloadCache,
+                             CatalogVersion catalogVersion,
+                             @Value("${app.catalog.single-instance}") boolean singleInstance,
+                             @Value("${app.catalog.http-max-age}") Duration maxAge) {
+        this.productService = productService;
+        this.productPayloadCache = productPayloadCache;
+        this.catalogVersion = catalogVersion;
+        this.singleInstance = singleInstance;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().mustRevalidate();
+    }
     
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getProducts(
+    public ResponseEntity<Page<ProductJson>> getProducts(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) List<String> sizeFilter,
             @RequestParam(required = false) List<String> colorFilter,
@@ -25,20 +51,88 @@ public class ProductController {
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
+            @RequestParam(defaultValue = "12") int size,
+            WebRequest webRequest) {
         
-        Page<ProductDTO> products = productService.getProducts(
-                q, sizeFilter, colorFilter, minPrice, maxPrice, sort, page, size);
-        return ResponseEntity.ok(products);
+        return listing(webRequest, () -> productService.getProductCards(
+                q, sizeFilter, colorFilter, minPrice, maxPrice, sort, page, size));
+    }
+    
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<ProductJson>> getProductsAfter(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> sizeFilter,
+            @RequestParam(required = false) List<String> colorFilter,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            WebRequest webRequest) {
+        
+        return listing(webRequest, () -> productService.getProductsAfter(
+                q, sizeFilter, colorFilter, minPrice, maxPrice, sort, cursor, size));
+    }
+    
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedProductsDTO<ProductJson>> getFacetedProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> sizeFilter,
+            @RequestParam(required = false) List<String> colorFilter,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            WebRequest webRequest) {
+        
+        return listing(webRequest, () -> productService.getFacetedProducts(
+                q, sizeFilter, colorFilter, minPrice, maxPrice, sort, page, size));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        ProductJson product = productPayloadCache.byId(id, () -> productService.getProductById(id));
+        return conditional(webRequest, product.etag(), product::bytes);
     }
     
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<ProductDTO> getProductBySlug(@PathVariable String slug) {
-        return ResponseEntity.ok(productService.getProductBySlug(slug));
+    public ResponseEntity<byte[]> getProductBySlug(@PathVariable String slug, WebRequest webRequest) {
+        ProductJson product = productPayloadCache.bySlug(slug, () -> productService.getProductBySlug(slug));
+        return conditional(webRequest, product.etag(), product::bytes);
+    }
+    
+    /**
+     * On a single instance, answers 304 from the catalog version alone when the client's
+     * ETag is current, without running the listing query. The ETag is taken before the
+     * read, so a write racing with it makes the next request fetch again rather than keep
+     * stale data. Otherwise the response carries no ETag here and
+     * {@code CatalogEtagConfig} hashes the body instead.
+     */
+    private <T> ResponseEntity<T> listing(WebRequest webRequest, Supplier<T> body) {
+        if (singleInstance) {
+            return conditional(webRequest, catalogVersion.catalogETag(), body);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .body(body.get());
+    }
+    
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, String etag, Supplier<T> body) {
+        if (webRequest.checkNotModified(etag)) {
+            // checkNotModified has already set the status and ETag
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(etag)
+                .body(body.get());
     }
 }
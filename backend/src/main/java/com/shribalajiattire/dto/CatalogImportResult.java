@@ -0,0 +1,19 @@
+package com.shribalajiattire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportResult {
+    private int imported;
+    private int duplicates;
+    private int rejected;
+    private List<String> errors;
+}
@@ -0,0 +1,16 @@
+package com.shribalajiattire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedProductsDTO<T> {
+    private Page<T> products;
+    private ProductFacetsDTO facets;
+}
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,12 +28,17 @@ public class ProductDTO {
     private List<String> sizes;
     private List<String> colors;
     private List<String> images;
+    private List<String> imageSrcsets;
     private Integer stock;
     private Boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
     public static ProductDTO fromProduct(Product product) {
+        List<ProductImage> images = product.getImages().stream()
+                .sorted((a, b) -> a.getDisplayOrder().compareTo(b.getDisplayOrder()))
+                .collect(Collectors.toList());
+        
         return ProductDTO.builder()
                 .id(product.getId())
                 .name(product.getName())
@@ -42,12 +48,14 @@ public class ProductDTO {
                 .priceCents(product.getPriceCents())
                 .price(product.getPriceCents() / 100.0)
                 .currency(product.getCurrency())
-                .sizes(product.getSizes())
-                .colors(product.getColors())
-                .images(product.getImages().stream()
-                        .sorted((a, b) -> a.getDisplayOrder().compareTo(b.getDisplayOrder()))
+                .sizes(new ArrayList<>(product.getSizes()))
+                .colors(new ArrayList<>(product.getColors()))
+                .images(images.stream()
                         .map(ProductImage::getUrl)
                         .collect(Collectors.toList()))
+                .imageSrcsets(images.stream()
+                        .map(ProductImage::getSrcset)
+                        .collect(Collectors.toList()))
                 .stock(product.getStock())
                 .active(product.getActive())
                 .createdAt(product.getCreatedAt())
@@ -0,0 +1,18 @@
+package com.shribalajiattire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDTO {
+    private Map<String, Integer> sizes;
+    private Map<String, Integer> colors;
+    private Map<String, Integer> priceRanges;
+}
@@ -0,0 +1,62 @@
+package com.shribalajiattire.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+
+/**
+ * A {@link ProductDTO} serialized once and reused. Inside a larger response Jackson
+ * copies the stored UTF-8 bytes instead of walking the DTO again.
+ */
+public final class ProductJson implements JsonSerializable {
+    
+    private final SerializedString json;
+    private volatile String etag;
+    
+    public ProductJson(String json) {
+        this.json = new SerializedString(json);
+        // Encode now so every response copies the same bytes
+        this.json.asUnquotedUTF8();
+    }
+    
+    /**
+     * The UTF-8 encoded payload. The array is shared and must not be modified.
+     */
+    public byte[] bytes() {
+        return json.asUnquotedUTF8();
+    }
+    
+    /**
+     * A strong ETag hashed from the payload, so every instance serving the same product
+     * state hands out the same validator.
+     */
+    public String etag() {
+        String value = etag;
+        if (value == null) {
+            value = "\"" + DigestUtils.md5DigestAsHex(bytes()) + "\"";
+            etag = value;
+        }
+        return value;
+    }
+    
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(json);
+    }
+    
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+    
+    @Override
+    public String toString() {
+        return json.getValue();
+    }
+}
@@ -0,0 +1,50 @@
+package com.shribalajiattire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReportDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity;
+    private long orderCount;
+    private long paidOrderCount;
+    private long revenueCents;
+    private long units;
+    private List<Bucket> buckets;
+    private List<ProductSales> topProducts;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private LocalDateTime start;
+        private long orderCount;
+        private long paidOrderCount;
+        private long revenueCents;
+        private long units;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductSales {
+        private Long productId;
+        private String name;
+        private String sku;
+        private long units;
+        private long revenueCents;
+    }
+}
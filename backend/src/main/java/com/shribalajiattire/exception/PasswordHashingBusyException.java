@@ -0,0 +1,12 @@
+package com.shribalajiattire.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated and the request should be
+ * retried later rather than queued.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    
+    public PasswordHashingBusyException() {
+        super("Too many sign-in attempts in progress, please retry shortly");
+    }
+}
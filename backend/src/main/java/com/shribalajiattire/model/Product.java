@@ -17,7 +17,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_active_created", columnList = "active, created_at, id"),
+        @Index(name = "idx_products_active_price", columnList = "active, price_cents, id"),
+        @Index(name = "idx_products_active_name", columnList = "active, name, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
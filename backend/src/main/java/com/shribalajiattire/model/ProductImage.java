@@ -8,7 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "product_images")
+@Table(name = "product_images", indexes = @Index(name = "idx_product_images_url", columnList = "url"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,6 +28,9 @@ public class ProductImage {
     
     private String altText;
     
+    @Column(length = 1024)
+    private String srcset;
+    
     @Column(nullable = false)
     private Integer displayOrder = 0;
 }
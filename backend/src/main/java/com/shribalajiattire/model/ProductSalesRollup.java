@@ -0,0 +1,37 @@
+package com.shribalajiattire.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Units and revenue for one product on one day, counting recognised orders only.
+ */
+@Entity
+@Table(name = "product_sales_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_product_sales_rollups_date_product", columnNames = {"sale_date", "product_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate saleDate;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private long units;
+    
+    @Column(nullable = false)
+    private long revenueCents;
+}
@@ -0,0 +1,50 @@
+package com.shribalajiattire.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sales counters for one hour or one day, keyed by order creation time. Revenue,
+ * units and paid orders only cover orders in a recognised status (paid through
+ * delivered); the order count covers every order placed.
+ */
+@Entity
+@Table(name = "sales_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_sales_rollups_bucket", columnNames = {"granularity", "bucket_start"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+    
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(nullable = false)
+    private long orderCount;
+    
+    @Column(nullable = false)
+    private long paidOrderCount;
+    
+    @Column(nullable = false)
+    private long revenueCents;
+    
+    @Column(nullable = false)
+    private long units;
+    
+    public enum Granularity {
+        HOUR, DAY
+    }
+}
@@ -2,25 +2,91 @@ package com.shribalajiattire.repository;
 
 import com.shribalajiattire.model.Order;
 import com.shribalajiattire.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    // Order history reads load entities that are never modified, so skip their snapshots
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Override
+    Page<Order> findAll(Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<Order> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Order> findByUserOrderByCreatedAtDesc(User user);
     
-    @Query("SELECT SUM(o.totalCents) FROM Order o WHERE o.status = 'PAID' AND o.createdAt >= :startDate")
-    Long calculateRevenue(@Param("startDate") LocalDateTime startDate);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findByUserOrderByCreatedAtDescIdDesc(User user, Pageable pageable);
+    
+    // The redundant createdAt <= bound lets the keyset seek use an index range despite the OR
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o WHERE o.user = :user AND o.createdAt <= :createdAt AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserBefore(@Param("user") User user, @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o WHERE o.createdAt <= :createdAt AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findAllBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                              Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentId = :paymentId WHERE o.id = :id AND o.paymentId IS NULL")
+    int attachPaymentId(@Param("id") Long id, @Param("paymentId") String paymentId);
+    
+    @Query("SELECT o.createdAt AS createdAt, o.status AS status, o.totalCents AS totalCents " +
+           "FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    Stream<OrderTotals> streamTotals(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT o.createdAt AS createdAt, i.product.id AS productId, i.quantity AS quantity, " +
+           "i.unitPriceCents AS unitPriceCents FROM OrderItem i JOIN i.order o " +
+           "WHERE o.createdAt >= :from AND o.createdAt < :to AND o.status IN :statuses")
+    Stream<OrderLine> streamLines(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                  @Param("statuses") Collection<Order.OrderStatus> statuses);
+    
+    @Query("SELECT MIN(o.createdAt) FROM Order o")
+    LocalDateTime findFirstCreatedAt();
+    
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.paymentMethod = :paymentMethod " +
+           "AND o.paymentId IS NULL AND o.createdAt < :createdBefore ORDER BY o.createdAt")
+    List<Order> findWithoutPaymentId(@Param("status") Order.OrderStatus status,
+                                     @Param("paymentMethod") String paymentMethod,
+                                     @Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+    
+    interface OrderTotals {
+        LocalDateTime getCreatedAt();
+        Order.OrderStatus getStatus();
+        Long getTotalCents();
+    }
     
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.createdAt >= :startDate")
-    Long countOrdersSince(@Param("startDate") LocalDateTime startDate);
+    interface OrderLine {
+        LocalDateTime getCreatedAt();
+        Long getProductId();
+        Integer getQuantity();
+        Long getUnitPriceCents();
+    }
 }
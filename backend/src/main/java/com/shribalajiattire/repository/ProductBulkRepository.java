@@ -0,0 +1,23 @@
+package com.shribalajiattire.repository;
+
+import com.shribalajiattire.model.Product;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductBulkRepository {
+    
+    /**
+     * Inserts the products together with their sizes and colors as JDBC batches,
+     * bypassing the persistence context. Images are not written. Returns the
+     * generated id for each SKU and sets the products' creation and update times.
+     */
+    Map<String, Long> insertProducts(List<Product> products);
+    
+    /**
+     * Reads up to {@code limit} active products with an id greater than
+     * {@code afterId}, in id order, with sizes and colors populated. The returned
+     * products are detached snapshots, not managed entities.
+     */
+    List<Product> findCatalogPage(long afterId, int limit);
+}
@@ -0,0 +1,116 @@
+package com.shribalajiattire.repository;
+
+import com.shribalajiattire.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+class ProductBulkRepositoryImpl implements ProductBulkRepository {
+    
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (name, slug, sku, description, price_cents, currency, stock, active, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SIZE = "INSERT INTO product_sizes (product_id, size) VALUES (?, ?)";
+    private static final String INSERT_COLOR = "INSERT INTO product_colors (product_id, color) VALUES (?, ?)";
+    private static final String SELECT_IDS_BY_SKU = "SELECT id, sku FROM products WHERE sku IN (:skus)";
+    
+    private static final String SELECT_CATALOG_PAGE =
+            "SELECT id, name, slug, sku, description, price_cents, currency, stock FROM products " +
+            "WHERE active = TRUE AND id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_SIZES = "SELECT product_id, size FROM product_sizes WHERE product_id IN (:ids)";
+    private static final String SELECT_COLORS = "SELECT product_id, color FROM product_colors WHERE product_id IN (:ids)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Override
+    public Map<String, Long> insertProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+        
+        // Stamped on the entities too, so events published for them carry the stored values
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Timestamp now = Timestamp.valueOf(createdAt);
+        for (Product product : products) {
+            product.setCreatedAt(createdAt);
+            product.setUpdatedAt(createdAt);
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, products.size(), (ps, product) -> {
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getSlug());
+            ps.setString(3, product.getSku());
+            ps.setString(4, product.getDescription());
+            ps.setLong(5, product.getPriceCents());
+            ps.setString(6, product.getCurrency());
+            ps.setInt(7, product.getStock());
+            ps.setBoolean(8, product.getActive());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+        
+        // Generated keys are not reliably returned for batches across drivers, so resolve them by SKU
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_IDS_BY_SKU,
+                Map.of("skus", products.stream().map(Product::getSku).toList()),
+                rs -> {
+                    ids.put(rs.getString("sku"), rs.getLong("id"));
+                });
+        
+        List<Object[]> sizes = new ArrayList<>();
+        List<Object[]> colors = new ArrayList<>();
+        for (Product product : products) {
+            Long id = ids.get(product.getSku());
+            product.getSizes().forEach(size -> sizes.add(new Object[]{id, size}));
+            product.getColors().forEach(color -> colors.add(new Object[]{id, color}));
+        }
+        if (!sizes.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SIZE, sizes);
+        }
+        if (!colors.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_COLOR, colors);
+        }
+        return ids;
+    }
+    
+    @Override
+    public List<Product> findCatalogPage(long afterId, int limit) {
+        Map<Long, Product> products = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_CATALOG_PAGE, rs -> {
+            Product product = Product.builder()
+                    .id(rs.getLong("id"))
+                    .name(rs.getString("name"))
+                    .slug(rs.getString("slug"))
+                    .sku(rs.getString("sku"))
+                    .description(rs.getString("description"))
+                    .priceCents(rs.getLong("price_cents"))
+                    .currency(rs.getString("currency"))
+                    .stock(rs.getInt("stock"))
+                    .active(true)
+                    .build();
+            products.put(product.getId(), product);
+        }, afterId, limit);
+        
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Object> params = Map.of("ids", products.keySet());
+        namedParameterJdbcTemplate.query(SELECT_SIZES, params, rs -> {
+            products.get(rs.getLong("product_id")).getSizes().add(rs.getString("size"));
+        });
+        namedParameterJdbcTemplate.query(SELECT_COLORS, params, rs -> {
+            products.get(rs.getLong("product_id")).getColors().add(rs.getString("color"));
+        });
+        return new ArrayList<>(products.values());
+    }
+}
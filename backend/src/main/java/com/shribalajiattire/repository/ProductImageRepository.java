@@ -0,0 +1,10 @@
+package com.shribalajiattire.repository;
+
+import com.shribalajiattire.model.ProductImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
+    long countByUrl(String url);
+}
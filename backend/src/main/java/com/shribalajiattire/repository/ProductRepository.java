@@ -1,25 +1,91 @@
 package com.shribalajiattire.repository;
 
 import com.shribalajiattire.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductStockRepository, ProductBulkRepository {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<Product> findBySlug(String slug);
     boolean existsBySku(String sku);
     
-    @Query("SELECT p FROM Product p WHERE p.active = true AND " +
-           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Product> searchProducts(@Param("query") String query, Pageable pageable);
+    // Storefront listings only read what they load, so skip Hibernate's dirty-check snapshots
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Override
+    List<Product> findAll(Specification<Product> spec);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Override
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+    
+    @Query("SELECT p.sku FROM Product p")
+    List<String> findAllSkus();
+    
+    @Query("SELECT p.slug FROM Product p")
+    List<String> findAllSlugs();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<Product> findByActiveTrue(Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.sizes WHERE p.id IN :ids")
+    List<Product> fetchSizes(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.colors WHERE p.id IN :ids")
+    List<Product> fetchColors(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.images WHERE p.id IN :ids")
+    List<Product> fetchImages(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku, p.description AS description " +
+           "FROM Product p WHERE p.active = true")
+    List<SearchableFields> findSearchableFields();
+    
+    @Query("SELECT p.id AS id, p.priceCents AS priceCents, p.active AS active, p.name AS name, " +
+            "p.createdAt AS createdAt FROM Product p")
+    List<FacetFields> findFacetFields();
+    
+    @Query("SELECT p.id AS productId, s AS value FROM Product p JOIN p.sizes s")
+    List<FacetValue> findSizeFacetValues();
+    
+    @Query("SELECT p.id AS productId, c AS value FROM Product p JOIN p.colors c")
+    List<FacetValue> findColorFacetValues();
+    
+    interface SearchableFields {
+        Long getId();
+        String getName();
+        String getSku();
+        String getDescription();
+    }
+    
+    interface FacetFields {
+        Long getId();
+        Long getPriceCents();
+        Boolean getActive();
+        String getName();
+        LocalDateTime getCreatedAt();
+    }
+    
+    interface FacetValue {
+        Long getProductId();
+        String getValue();
+    }
 }
@@ -0,0 +1,31 @@
+package com.shribalajiattire.repository;
+
+import com.shribalajiattire.model.ProductSalesRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductSalesRollupRepository extends JpaRepository<ProductSalesRollup, Long> {
+    
+    @Query("SELECT r.productId AS productId, SUM(r.units) AS units, SUM(r.revenueCents) AS revenueCents " +
+           "FROM ProductSalesRollup r WHERE r.saleDate >= :from AND r.saleDate < :to " +
+           "GROUP BY r.productId ORDER BY SUM(r.units) DESC, r.productId")
+    List<ProductTotals> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM ProductSalesRollup r WHERE r.saleDate >= :from AND r.saleDate < :to")
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    interface ProductTotals {
+        Long getProductId();
+        Long getUnits();
+        Long getRevenueCents();
+    }
+}
@@ -0,0 +1,19 @@
+package com.shribalajiattire.repository;
+
+import java.util.List;
+import java.util.SortedMap;
+
+public interface ProductStockRepository {
+    
+    /**
+     * Decrements stock for every product in a single JDBC batch. A row is only
+     * updated while it still holds enough stock, so concurrent checkouts can never
+     * take it below zero. Returns the ids that could not be reserved.
+     */
+    List<Long> decrementStock(SortedMap<Long, Integer> quantities);
+    
+    /**
+     * Returns reserved stock to every product in a single JDBC batch.
+     */
+    void incrementStock(SortedMap<Long, Integer> quantities);
+}
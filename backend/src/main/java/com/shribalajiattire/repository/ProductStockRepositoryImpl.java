@@ -0,0 +1,47 @@
+package com.shribalajiattire.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+class ProductStockRepositoryImpl implements ProductStockRepository {
+    
+    private static final String DECREMENT_STOCK =
+            "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String INCREMENT_STOCK = "UPDATE products SET stock = stock + ? WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public List<Long> decrementStock(SortedMap<Long, Integer> quantities) {
+        // Sorted ids keep row-lock acquisition order stable across concurrent checkouts
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_STOCK, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        });
+        
+        List<Long> insufficient = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (counts[0][i] == 0) {
+                insufficient.add(entries.get(i).getKey());
+            }
+        }
+        return insufficient;
+    }
+    
+    @Override
+    public void incrementStock(SortedMap<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        jdbcTemplate.batchUpdate(INCREMENT_STOCK, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.shribalajiattire.repository;
+
+import com.shribalajiattire.model.SalesRollup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+
+public interface SalesRollupIncrements {
+    
+    /**
+     * Adds the deltas to a bucket, creating it on first use, in a single upsert
+     * statement: {@code INSERT ... ON DUPLICATE KEY UPDATE} on MySQL, {@code MERGE} on H2.
+     */
+    void increment(SalesRollup.Granularity granularity, LocalDateTime bucketStart, SalesDelta delta);
+    
+    /**
+     * Adds per-product deltas for one day as one JDBC batch of upserts.
+     */
+    void incrementProducts(LocalDate day, SortedMap<Long, ProductDelta> deltas);
+    
+    record SalesDelta(long orders, long paidOrders, long revenueCents, long units) {
+        
+        public SalesDelta plus(SalesDelta other) {
+            return new SalesDelta(orders + other.orders, paidOrders + other.paidOrders,
+                    revenueCents + other.revenueCents, units + other.units);
+        }
+    }
+    
+    record ProductDelta(long units, long revenueCents) {
+        
+        public ProductDelta plus(ProductDelta other) {
+            return new ProductDelta(units + other.units, revenueCents + other.revenueCents);
+        }
+    }
+}
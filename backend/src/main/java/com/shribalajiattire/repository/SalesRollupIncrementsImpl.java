@@ -0,0 +1,95 @@
+package com.shribalajiattire.repository;
+
+import com.shribalajiattire.model.SalesRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+class SalesRollupIncrementsImpl implements SalesRollupIncrements {
+    
+    private static final Upserts MYSQL = new Upserts(
+            "INSERT INTO sales_rollups (order_count, paid_order_count, revenue_cents, units, granularity, bucket_start) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "paid_order_count = paid_order_count + VALUES(paid_order_count), " +
+            "revenue_cents = revenue_cents + VALUES(revenue_cents), units = units + VALUES(units)",
+            "INSERT INTO product_sales_rollups (units, revenue_cents, sale_date, product_id) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE units = units + VALUES(units), revenue_cents = revenue_cents + VALUES(revenue_cents)");
+    
+    private static final Upserts H2 = new Upserts(
+            "MERGE INTO sales_rollups r USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+            "CAST(? AS BIGINT), CAST(? AS VARCHAR(8)), CAST(? AS TIMESTAMP(6)))) " +
+            "d (order_count, paid_order_count, revenue_cents, units, granularity, bucket_start) " +
+            "ON r.granularity = d.granularity AND r.bucket_start = d.bucket_start " +
+            "WHEN MATCHED THEN UPDATE SET order_count = r.order_count + d.order_count, " +
+            "paid_order_count = r.paid_order_count + d.paid_order_count, " +
+            "revenue_cents = r.revenue_cents + d.revenue_cents, units = r.units + d.units " +
+            "WHEN NOT MATCHED THEN INSERT (order_count, paid_order_count, revenue_cents, units, granularity, bucket_start) " +
+            "VALUES (d.order_count, d.paid_order_count, d.revenue_cents, d.units, d.granularity, d.bucket_start)",
+            "MERGE INTO product_sales_rollups r USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+            "CAST(? AS DATE), CAST(? AS BIGINT))) d (units, revenue_cents, sale_date, product_id) " +
+            "ON r.sale_date = d.sale_date AND r.product_id = d.product_id " +
+            "WHEN MATCHED THEN UPDATE SET units = r.units + d.units, revenue_cents = r.revenue_cents + d.revenue_cents " +
+            "WHEN NOT MATCHED THEN INSERT (units, revenue_cents, sale_date, product_id) " +
+            "VALUES (d.units, d.revenue_cents, d.sale_date, d.product_id)");
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private volatile Upserts upserts;
+    
+    @Override
+    public void increment(SalesRollup.Granularity granularity, LocalDateTime bucketStart, SalesDelta delta) {
+        jdbcTemplate.update(upserts().bucket(), delta.orders(), delta.paidOrders(), delta.revenueCents(),
+                delta.units(), granularity.name(), Timestamp.valueOf(bucketStart));
+    }
+    
+    @Override
+    public void incrementProducts(LocalDate day, SortedMap<Long, ProductDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        // Sorted product ids keep row-lock acquisition order stable across concurrent orders
+        Date sqlDay = Date.valueOf(day);
+        List<Map.Entry<Long, ProductDelta>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(upserts().product(), entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue().units());
+            ps.setLong(2, entry.getValue().revenueCents());
+            ps.setDate(3, sqlDay);
+            ps.setLong(4, entry.getKey());
+        });
+    }
+    
+    private Upserts upserts() {
+        Upserts current = upserts;
+        if (current == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            if (database.startsWith("MySQL")) {
+                current = MYSQL;
+            } else if (database.startsWith("H2")) {
+                current = H2;
+            } else {
+                throw new IllegalStateException("Sales rollups do not support " + database);
+            }
+            upserts = current;
+        }
+        return current;
+    }
+    
+    /**
+     * One atomic upsert per table, so a checkout that opens a new bucket never has to
+     * recover from a duplicate key inside its transaction.
+     */
+    private record Upserts(String bucket, String product) {
+    }
+}
@@ -1,7 +1,11 @@
 package com.shribalajiattire.repository;
 
+import com.shribalajiattire.config.CacheConfig;
 import com.shribalajiattire.model.User;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +14,8 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    @Cacheable(CacheConfig.USER_ROLES)
+    @Query("SELECT u.role FROM User u WHERE u.id = :id")
+    Optional<User.Role> findRoleById(@Param("id") Long id);
 }
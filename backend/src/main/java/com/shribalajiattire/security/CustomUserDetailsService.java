@@ -2,6 +2,7 @@ package com.shribalajiattire.security;
 
 import com.shribalajiattire.model.User;
 import com.shribalajiattire.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -31,4 +32,27 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         return UserPrincipal.create(user);
     }
+    
+    /**
+     * Builds the principal from token claims without loading the user row. The
+     * current role comes from a short-lived cache, so deleted users and role
+     * changes revoke outstanding tokens within the cache TTL.
+     */
+    public UserDetails loadUserFromClaims(Claims claims) {
+        Long id = Long.parseLong(claims.getSubject());
+        String tokenRole = claims.get(JwtTokenProvider.ROLE_CLAIM, String.class);
+        if (tokenRole == null) {
+            // Tokens issued before role claims were added
+            return loadUserById(id);
+        }
+        
+        boolean current = userRepository.findRoleById(id)
+                .map(role -> role.name().equals(tokenRole))
+                .orElse(false);
+        if (!current) {
+            throw new UsernameNotFoundException("Token no longer valid for user id: " + id);
+        }
+        
+        return UserPrincipal.fromClaims(claims);
+    }
 }
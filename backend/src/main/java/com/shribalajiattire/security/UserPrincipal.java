@@ -1,6 +1,7 @@
 package com.shribalajiattire.security;
 
 import com.shribalajiattire.model.User;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -33,6 +34,24 @@ public class UserPrincipal implements UserDetails {
         );
     }
     
+    /**
+     * Rebuilds the principal from verified token claims; the password is never
+     * part of a token, so it is left null.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Collection<GrantedAuthority> authorities = Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + claims.get(JwtTokenProvider.ROLE_CLAIM, String.class))
+        );
+        
+        return new UserPrincipal(
+                Long.parseLong(claims.getSubject()),
+                claims.get(JwtTokenProvider.NAME_CLAIM, String.class),
+                claims.get(JwtTokenProvider.EMAIL_CLAIM, String.class),
+                null,
+                authorities
+        );
+    }
+    
     @Override
     public String getUsername() {
         return email;
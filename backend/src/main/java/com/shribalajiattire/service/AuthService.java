@@ -7,13 +7,13 @@ import com.shribalajiattire.dto.UserDTO;
 import com.shribalajiattire.model.User;
 import com.shribalajiattire.repository.UserRepository;
 import com.shribalajiattire.security.JwtTokenProvider;
+import com.shribalajiattire.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -24,7 +24,11 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     
-    @Transactional
+    /**
+     * Not transactional on purpose: hashing can wait for the password pool, and that
+     * wait should not pin a database connection. The save is atomic on its own and
+     * the unique email constraint still guards against a concurrent registration.
+     */
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already registered");
@@ -39,9 +43,10 @@ public class AuthService {
         
         user = userRepository.save(user);
         
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+        // The password was just hashed; verifying it again would cost a second bcrypt round
+        UserPrincipal principal = UserPrincipal.create(user);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
         
         String token = tokenProvider.generateToken(authentication);
         
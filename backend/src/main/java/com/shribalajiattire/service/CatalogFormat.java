@@ -0,0 +1,40 @@
+package com.shribalajiattire.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum CatalogFormat {
+    CSV("csv", MediaType.parseMediaType("text/csv")),
+    JSONL("jsonl", MediaType.APPLICATION_NDJSON);
+    
+    private final String extension;
+    private final MediaType mediaType;
+    
+    CatalogFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+    
+    public static CatalogFormat fromMediaType(MediaType mediaType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(mediaType))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unsupported catalog format: " + mediaType));
+    }
+    
+    public static CatalogFormat fromExtension(String extension) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(extension))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unsupported catalog format: " + extension));
+    }
+}
@@ -0,0 +1,290 @@
+package com.shribalajiattire.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shribalajiattire.dto.CatalogImportResult;
+import com.shribalajiattire.dto.CreateProductRequest;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.repository.ProductRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk catalog import and export. Both directions stream: import parses one record
+ * at a time and writes fixed-size JDBC batches, export pages through the catalog by
+ * id, so memory use depends on the batch size rather than the file size.
+ */
+@Slf4j
+@Service
+public class CatalogService {
+    
+    static final List<String> CSV_COLUMNS = List.of("sku", "name", "description", "price", "sizes", "colors", "stock");
+    private static final String LIST_SEPARATOR = "|";
+    private static final int MAX_REPORTED_ERRORS = 100;
+    
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    
+    public CatalogService(ProductRepository productRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          TransactionTemplate transactionTemplate,
+                          ObjectMapper objectMapper,
+                          Validator validator,
+                          @Value("${app.catalog.batch-size}") int batchSize) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Imports products that do not exist yet. Each batch commits on its own, so a
+     * failed import can simply be re-run: SKUs that made it in are skipped as duplicates.
+     */
+    public CatalogImportResult importCatalog(InputStream input, CatalogFormat format) {
+        Set<String> skus = new HashSet<>(productRepository.findAllSkus());
+        Set<String> slugs = new HashSet<>(productRepository.findAllSlugs());
+        CatalogImportResult result = CatalogImportResult.builder().errors(new ArrayList<>()).build();
+        List<Product> batch = new ArrayList<>(batchSize);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RecordReader records = format == CatalogFormat.CSV ? csvRecords(reader) : jsonlRecords(reader);
+            int recordNumber = 0;
+            while (true) {
+                recordNumber++;
+                CreateProductRequest request;
+                try {
+                    request = records.next();
+                } catch (JsonProcessingException | CatalogCsv.MalformedRecordException | NumberFormatException e) {
+                    reject(result, recordNumber, e.getMessage());
+                    continue;
+                }
+                if (request == null) {
+                    break;
+                }
+                
+                Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    ConstraintViolation<CreateProductRequest> violation = violations.iterator().next();
+                    reject(result, recordNumber, violation.getPropertyPath() + " " + violation.getMessage());
+                    continue;
+                }
+                if (!skus.add(request.getSku())) {
+                    result.setDuplicates(result.getDuplicates() + 1);
+                    continue;
+                }
+                
+                batch.add(toProduct(request, uniqueSlug(request, slugs)));
+                if (batch.size() == batchSize) {
+                    result.setImported(result.getImported() + insertBatch(batch));
+                    batch.clear();
+                }
+            }
+            result.setImported(result.getImported() + insertBatch(batch));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read catalog", e);
+        }
+        
+        log.info("Catalog import finished: {} imported, {} duplicates, {} rejected",
+                result.getImported(), result.getDuplicates(), result.getRejected());
+        return result;
+    }
+    
+    public void exportCatalog(OutputStream output, CatalogFormat format) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            if (format == CatalogFormat.CSV) {
+                writer.write(CatalogCsv.formatRecord(CSV_COLUMNS));
+            }
+            
+            long afterId = 0;
+            List<Product> page;
+            do {
+                page = productRepository.findCatalogPage(afterId, batchSize);
+                for (Product product : page) {
+                    writer.write(format == CatalogFormat.CSV ? toCsv(product) : toJsonl(product));
+                    afterId = product.getId();
+                }
+                writer.flush();
+            } while (page.size() == batchSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write catalog", e);
+        }
+    }
+    
+    private int insertBatch(List<Product> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Long> ids = productRepository.insertProducts(batch);
+            for (Product product : batch) {
+                product.setId(ids.get(product.getSku()));
+                eventPublisher.publishEvent(ProductChangedEvent.of(product));
+            }
+        });
+        return batch.size();
+    }
+    
+    private static void reject(CatalogImportResult result, int recordNumber, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("Record " + recordNumber + ": " + message);
+        }
+    }
+    
+    private static String uniqueSlug(CreateProductRequest request, Set<String> slugs) {
+        String slug = ProductService.generateSlug(request.getName());
+        if (!slugs.add(slug)) {
+            slug = slug + "-" + ProductService.generateSlug(request.getSku());
+            String candidate = slug;
+            for (int i = 2; !slugs.add(candidate); i++) {
+                candidate = slug + "-" + i;
+            }
+            slug = candidate;
+        }
+        return slug;
+    }
+    
+    private static Product toProduct(CreateProductRequest request, String slug) {
+        return Product.builder()
+                .name(request.getName())
+                .slug(slug)
+                .sku(request.getSku())
+                .description(request.getDescription())
+                .priceCents(Math.round(request.getPrice() * 100))
+                .currency("INR")
+                .sizes(request.getSizes() != null ? request.getSizes() : new ArrayList<>())
+                .colors(request.getColors() != null ? request.getColors() : new ArrayList<>())
+                .stock(request.getStock() != null ? request.getStock() : 0)
+                .active(true)
+                .build();
+    }
+    
+    private static String toCsv(Product product) {
+        return CatalogCsv.formatRecord(Arrays.asList(
+                product.getSku(),
+                product.getName(),
+                product.getDescription(),
+                BigDecimal.valueOf(product.getPriceCents(), 2).toPlainString(),
+                String.join(LIST_SEPARATOR, product.getSizes()),
+                String.join(LIST_SEPARATOR, product.getColors()),
+                String.valueOf(product.getStock())
+        ));
+    }
+    
+    private String toJsonl(Product product) throws IOException {
+        CreateProductRequest request = new CreateProductRequest();
+        request.setSku(product.getSku());
+        request.setName(product.getName());
+        request.setDescription(product.getDescription());
+        request.setPrice(product.getPriceCents() / 100.0);
+        request.setSizes(product.getSizes());
+        request.setColors(product.getColors());
+        request.setStock(product.getStock());
+        return objectMapper.writeValueAsString(request) + "\n";
+    }
+    
+    private static RecordReader csvRecords(BufferedReader reader) throws IOException {
+        List<String> header = CatalogCsv.readRecord(reader);
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        if (!columns.containsKey("sku") || !columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new RuntimeException("CSV header must contain sku, name and price columns");
+        }
+        
+        return () -> {
+            List<String> fields = CatalogCsv.readRecord(reader);
+            while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+                fields = CatalogCsv.readRecord(reader);
+            }
+            if (fields == null) {
+                return null;
+            }
+            CreateProductRequest request = new CreateProductRequest();
+            request.setSku(column(fields, columns, "sku"));
+            request.setName(column(fields, columns, "name"));
+            request.setDescription(column(fields, columns, "description"));
+            String price = column(fields, columns, "price");
+            request.setPrice(price != null ? Double.valueOf(price) : null);
+            request.setSizes(listColumn(fields, columns, "sizes"));
+            request.setColors(listColumn(fields, columns, "colors"));
+            String stock = column(fields, columns, "stock");
+            request.setStock(stock != null ? Integer.valueOf(stock) : null);
+            return request;
+        };
+    }
+    
+    private RecordReader jsonlRecords(BufferedReader reader) {
+        return () -> {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            return line != null ? objectMapper.readValue(line, CreateProductRequest.class) : null;
+        };
+    }
+    
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static List<String> listColumn(List<String> fields, Map<String, Integer> columns, String name) {
+        String value = column(fields, columns, name);
+        if (value == null) {
+            return null;
+        }
+        return Arrays.stream(value.split("\\" + LIST_SEPARATOR))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+    
+    @FunctionalInterface
+    private interface RecordReader {
+        /**
+         * Returns the next record, or null at end of input.
+         */
+        CreateProductRequest next() throws IOException;
+    }
+}
@@ -0,0 +1,102 @@
+package com.shribalajiattire.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the product caches and the listing ETags. Every committed product
+ * write bumps the catalog version and records it against the product.
+ * <p>
+ * The product caches key their entries by the product version read before loading, via
+ * {@link #productKey}. A load that races with a write is stored under the version the
+ * write superseded and never looked up again, so it cannot outlive the write's eviction.
+ * <p>
+ * Versions are per instance and only see writes made through this instance, which is why
+ * product ETags are hashed from the cached payload instead. The listing ETag is only used
+ * with {@code app.catalog.single-instance}, and it also rolls over once per product cache
+ * TTL, so a write this instance never saw stops validating no later than its caches expire.
+ * Versions start from the startup time, so a restart changes every listing ETag instead of
+ * reusing numbers that clients may already hold for different content.
+ */
+@Component
+public class CatalogVersion {
+    
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long initialVersion;
+    private final AtomicLong catalogVersion;
+    private final Map<Long, Long> versionsById = new ConcurrentHashMap<>();
+    private final Map<String, Long> versionsBySlug = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public CatalogVersion(@Value("${app.cache.products.ttl}") Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+    
+    CatalogVersion(Duration ttl, Clock clock) {
+        this.clock = clock;
+        this.ttlMillis = Math.max(ttl.toMillis(), 1);
+        this.initialVersion = clock.millis();
+        this.catalogVersion = new AtomicLong(initialVersion);
+    }
+    
+    public String catalogETag() {
+        long epoch = clock.millis() / ttlMillis;
+        return "\"c" + Long.toHexString(catalogVersion.get()) + "-" + Long.toHexString(epoch) + "\"";
+    }
+    
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+    
+    /**
+     * The catalog version of the product's last committed write. A product's id and slug
+     * are always bumped together, so both report the same version.
+     */
+    public long productVersion(Long productId) {
+        return versionsById.getOrDefault(productId, initialVersion);
+    }
+    
+    public long productVersion(String slug) {
+        return versionsBySlug.getOrDefault(slug, initialVersion);
+    }
+    
+    public VersionedKey productKey(Long productId) {
+        return new VersionedKey(productId, productVersion(productId));
+    }
+    
+    public VersionedKey productKey(String slug) {
+        return new VersionedKey(slug, productVersion(slug));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bump(event.productId(), event.slug());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        bump(event.productId(), event.slug());
+    }
+    
+    private void bump(Long productId, String slug) {
+        long version = catalogVersion.incrementAndGet();
+        if (productId != null) {
+            versionsById.put(productId, version);
+        }
+        if (slug != null) {
+            versionsBySlug.put(slug, version);
+        }
+    }
+    
+    public record VersionedKey(Object key, long version) {
+    }
+}
@@ -1,29 +1,64 @@
 package com.shribalajiattire.service;
 
+import com.shribalajiattire.config.AsyncConfig;
+import com.shribalajiattire.repository.ProductImageRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class FileStorageService {
     
+    private static final String CONTENT_HASH = "SHA-256";
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}");
+    private static final int LOCK_STRIPES = 64;
+    
     private final Path fileStorageLocation;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ProductImageRepository productImageRepository;
+    private final Executor storageExecutor;
+    private final Map<String, Integer> pendingReferences = new ConcurrentHashMap<>();
+    private final Object[] fileLocks = new Object[LOCK_STRIPES];
     
     @Value("${app.upload.base-url}")
     private String baseUrl;
     
-    public FileStorageService(@Value("${app.upload.dir}") String uploadDir) {
+    public FileStorageService(@Value("${app.upload.dir}") String uploadDir,
+                              ImageDerivativeService imageDerivativeService,
+                              ProductImageRepository productImageRepository,
+                              @Qualifier(AsyncConfig.STORAGE_EXECUTOR) Executor storageExecutor) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.imageDerivativeService = imageDerivativeService;
+        this.productImageRepository = productImageRepository;
+        this.storageExecutor = storageExecutor;
+        for (int i = 0; i < fileLocks.length; i++) {
+            fileLocks[i] = new Object();
+        }
         
         try {
             Files.createDirectories(this.fileStorageLocation);
@@ -32,6 +67,15 @@ public class FileStorageService {
         }
     }
     
+    /**
+     * Stores the upload under the SHA-256 of its bytes, hashed while streaming to a
+     * temp file. Identical uploads resolve to the same file, so each unique image
+     * is held on disk (and in the page cache) once.
+     * <p>
+     * The returned URL holds a pending reference until {@link #release} is called,
+     * which keeps {@link #deleteIfUnreferenced} from removing the file while the
+     * caller's product_images row is not committed yet.
+     */
     public String storeFile(MultipartFile file) {
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
         
@@ -43,20 +87,171 @@ public class FileStorageService {
             String extension = "";
             int dotIndex = originalFilename.lastIndexOf('.');
             if (dotIndex > 0) {
-                extension = originalFilename.substring(dotIndex);
+                extension = originalFilename.substring(dotIndex).toLowerCase();
             }
             
-            String filename = UUID.randomUUID().toString() + extension;
-            Path targetLocation = this.fileStorageLocation.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
-            return baseUrl + "/" + filename;
-        } catch (IOException ex) {
+            Path temp = Files.createTempFile(fileStorageLocation, ".upload-", ".tmp");
+            try {
+                MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH);
+                try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                
+                String filename = HexFormat.of().formatHex(digest.digest()) + extension;
+                Path targetLocation = loadFile(filename);
+                boolean written;
+                // Same lock as deleteIfUnreferenced: a file found here cannot be deleted before it is claimed
+                synchronized (lockFor(filename)) {
+                    written = !Files.exists(targetLocation);
+                    if (written) {
+                        Files.createDirectories(targetLocation.getParent());
+                        moveIntoPlace(temp, targetLocation);
+                    }
+                    pendingReferences.merge(filename, 1, Integer::sum);
+                }
+                if (written) {
+                    generateDerivatives(targetLocation);
+                } else {
+                    log.debug("Deduplicated upload {} as {}", originalFilename, filename);
+                }
+                return baseUrl + "/" + filename;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | NoSuchAlgorithmException ex) {
             throw new RuntimeException("Could not store file " + originalFilename, ex);
         }
     }
     
+    /**
+     * Stores several uploads concurrently on the storage executor and returns their
+     * URLs in upload order. If any upload fails, the ones already written are
+     * cleaned up before the failure is rethrown.
+     */
+    public List<String> storeFiles(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+        
+        List<CompletableFuture<String>> pending = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> storeFile(file), storageExecutor))
+                .toList();
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            List<String> stored = pending.stream()
+                    .filter(future -> !future.isCompletedExceptionally())
+                    .map(CompletableFuture::join)
+                    .toList();
+            stored.forEach(this::release);
+            stored.forEach(this::deleteIfUnreferenced);
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+        return pending.stream().map(CompletableFuture::join).toList();
+    }
+    
+    /**
+     * Drops the pending reference {@link #storeFile} took for the URL. Call it once the
+     * transaction that persists (or failed to persist) the URL has completed.
+     */
+    public void release(String url) {
+        pendingReferences.computeIfPresent(filenameOf(url), (filename, count) -> count > 1 ? count - 1 : null);
+    }
+    
+    /**
+     * Removes a stored image and its derivatives once no product image references it.
+     * Committed references are counted from product_images, so the count cannot drift
+     * from the rows that actually point at the file; uploads still waiting for their
+     * transaction hold a pending reference and keep the file too.
+     */
+    public boolean deleteIfUnreferenced(String url) {
+        String filename = filenameOf(url);
+        synchronized (lockFor(filename)) {
+            if (pendingReferences.containsKey(filename) || productImageRepository.countByUrl(url) > 0) {
+                return false;
+            }
+            try {
+                for (int width : imageDerivativeService.getWidths()) {
+                    Files.deleteIfExists(loadFile(ImageDerivativeService.variantName(filename, width)));
+                }
+                return Files.deleteIfExists(loadFile(filename));
+            } catch (IOException ex) {
+                log.warn("Could not delete unreferenced file {}", filename, ex);
+                return false;
+            }
+        }
+    }
+    
+    /**
+     * Builds the srcset for an uploaded image, one {@code ?w=} URL per derivative
+     * width, or null when the format gets no derivatives.
+     */
+    public String srcsetFor(String url) {
+        if (!imageDerivativeService.supports(url)) {
+            return null;
+        }
+        return imageDerivativeService.getWidths().stream()
+                .map(width -> url + "?w=" + width + " " + width + "w")
+                .collect(Collectors.joining(", "));
+    }
+    
+    /**
+     * Content-addressed names fan out into two levels of directories keyed by the
+     * leading hash bytes ({@code ab/cd/abcd...}), so no directory grows unbounded.
+     * Names from before content addressing stay in the flat upload root.
+     */
     public Path loadFile(String filename) {
+        if (CONTENT_ADDRESSED.matcher(filename).lookingAt()) {
+            return fileStorageLocation
+                    .resolve(filename.substring(0, 2))
+                    .resolve(filename.substring(2, 4))
+                    .resolve(filename)
+                    .normalize();
+        }
         return fileStorageLocation.resolve(filename).normalize();
     }
+    
+    /**
+     * Resolves the smallest derivative at least {@code width} pixels wide. Returns the
+     * original when the width exceeds every derivative, and null while derivatives
+     * for a supported image have not been written yet.
+     */
+    public Path loadVariant(String filename, int width) {
+        Path original = loadFile(filename);
+        if (!imageDerivativeService.supports(filename)) {
+            return original;
+        }
+        for (int derivativeWidth : imageDerivativeService.getWidths()) {
+            if (derivativeWidth >= width) {
+                Path variant = loadFile(ImageDerivativeService.variantName(filename, derivativeWidth));
+                return Files.isRegularFile(variant) ? variant : null;
+            }
+        }
+        return original;
+    }
+    
+    private static String filenameOf(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+    
+    private Object lockFor(String filename) {
+        return fileLocks[Math.floorMod(filename.hashCode(), fileLocks.length)];
+    }
+    
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            // A concurrent upload of the same bytes won the race; its copy is identical
+        }
+    }
+    
+    private void generateDerivatives(Path original) {
+        try {
+            imageDerivativeService.generate(original);
+        } catch (TaskRejectedException ex) {
+            // Saturated pipeline: the original is still served, just without thumbnails
+            log.warn("Derivative queue full, skipping {}", original.getFileName());
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Produces fixed-width derivatives of uploaded images so listing grids can fetch
+ * thumbnails instead of full-size originals. A derivative for width {@code w} of
+ * {@code <name>.<ext>} is stored next to it as {@code <name>-w<w>.<ext>}.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+    
+    // Formats the JDK can both decode and re-encode; anything else is served as uploaded
+    private static final Map<String, String> WRITER_FORMATS = Map.of(
+            "jpg", "jpeg",
+            "jpeg", "jpeg",
+            "png", "png",
+            "gif", "gif",
+            "bmp", "bmp");
+    private static final float JPEG_QUALITY = 0.8f;
+    
+    private final List<Integer> widths;
+    
+    public ImageDerivativeService(@Value("${app.upload.derivative-widths}") List<Integer> widths) {
+        this.widths = widths.stream().sorted().toList();
+        ImageIO.setUseCache(false);
+    }
+    
+    public List<Integer> getWidths() {
+        return widths;
+    }
+    
+    public boolean supports(String filename) {
+        return WRITER_FORMATS.containsKey(extension(filename));
+    }
+    
+    public static String variantName(String filename, int width) {
+        int dotIndex = filename.lastIndexOf('.');
+        return filename.substring(0, dotIndex) + "-w" + width + filename.substring(dotIndex);
+    }
+    
+    @Async(AsyncConfig.IMAGE_EXECUTOR)
+    public void generate(Path original) {
+        String filename = original.getFileName().toString();
+        if (!supports(filename)) {
+            return;
+        }
+        
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                log.warn("Skipping derivatives for undecodable image {}", filename);
+                return;
+            }
+            String format = WRITER_FORMATS.get(extension(filename));
+            for (int width : widths) {
+                // Never upscale: narrow originals are re-encoded at their own width
+                BufferedImage scaled = scale(source, Math.min(width, source.getWidth()), format);
+                write(scaled, format, original.resolveSibling(variantName(filename, width)));
+            }
+        } catch (IOException e) {
+            log.error("Could not generate derivatives for {}", filename, e);
+        }
+    }
+    
+    private static BufferedImage scale(BufferedImage source, int targetWidth, String format) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        boolean alpha = source.getColorModel().hasAlpha() && !"jpeg".equals(format);
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        
+        // Halving steps keep bilinear downscaling from aliasing on large reductions
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+    
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if ("jpeg".equals(format)) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        }
+        
+        // Written beside the target and moved into place so readers never see a partial file
+        Path temp = Files.createTempFile(target.getParent(), ".derivative-", ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static String extension(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        return extension == null ? "" : extension.toLowerCase();
+    }
+}
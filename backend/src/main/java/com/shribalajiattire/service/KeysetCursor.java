@@ -0,0 +1,46 @@
+package com.shribalajiattire.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for seek pagination: the sort it was issued for, the sort key
+ * of the last row returned, and that row's id as tie-breaker. The sort and key are each
+ * encoded before joining, so a key may contain any character, the separator included.
+ */
+public record KeysetCursor(String sort, String value, Long id) {
+    
+    private static final String SEPARATOR = "\n";
+    
+    public String encode() {
+        String raw = encodeField(sort) + SEPARATOR + encodeField(value) + SEPARATOR + id;
+        return encodeField(raw);
+    }
+    
+    /**
+     * Decodes a token issued for {@code expectedSort}; a blank token means the first page.
+     */
+    public static KeysetCursor decode(String token, String expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        
+        try {
+            String[] parts = decodeField(token).split(SEPARATOR, -1);
+            if (parts.length != 3 || !decodeField(parts[0]).equals(expectedSort)) {
+                throw new IllegalArgumentException("Cursor does not match sort " + expectedSort);
+            }
+            return new KeysetCursor(expectedSort, decodeField(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    private static String encodeField(String field) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(field.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decodeField(String field) {
+        return new String(Base64.getUrlDecoder().decode(field), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,4 @@
+package com.shribalajiattire.service;
+
+public record OrderPlacedEvent(Long orderId, Long totalCents, String currency) {
+}
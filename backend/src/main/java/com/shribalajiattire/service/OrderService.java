@@ -2,7 +2,9 @@ package com.shribalajiattire.service;
 
 import com.shribalajiattire.dto.CartItemDTO;
 import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.CursorPage;
 import com.shribalajiattire.dto.OrderDTO;
+import com.shribalajiattire.dto.SalesReportDTO;
 import com.shribalajiattire.model.Order;
 import com.shribalajiattire.model.OrderItem;
 import com.shribalajiattire.model.Product;
@@ -11,6 +13,7 @@ import com.shribalajiattire.repository.OrderRepository;
 import com.shribalajiattire.repository.ProductRepository;
 import com.shribalajiattire.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,16 +22,24 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
     
+    private static final String ORDER_CURSOR_SORT = "createdAt:DESC";
+    
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final PaymentService paymentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SalesRollupService salesRollupService;
     
     @Transactional
     public OrderDTO createOrder(Long userId, CheckoutRequest request) {
@@ -43,14 +54,20 @@ public class OrderService {
                 .currency("INR")
                 .build();
         
+        // One query for every product in the cart instead of one per line
+        Set<Long> productIds = request.getCartItems().stream()
+                .map(CartItemDTO::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
         long totalCents = 0;
+        SortedMap<Long, Integer> reserved = new TreeMap<>();
         
         for (CartItemDTO cartItem : request.getCartItems()) {
-            Product product = productRepository.findById(cartItem.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + cartItem.getProductId()));
-            
-            if (product.getStock() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+            Product product = products.get(cartItem.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + cartItem.getProductId());
             }
             
             OrderItem orderItem = OrderItem.builder()
@@ -63,10 +80,15 @@ public class OrderService {
             
             order.addItem(orderItem);
             totalCents += product.getPriceCents() * cartItem.getQuantity();
-            
-            // Update stock
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            productRepository.save(product);
+            reserved.merge(product.getId(), cartItem.getQuantity(), Integer::sum);
+        }
+        
+        List<Long> insufficient = productRepository.decrementStock(reserved);
+        if (!insufficient.isEmpty()) {
+            throw new RuntimeException("Insufficient stock for product: " + products.get(insufficient.get(0)).getName());
+        }
+        for (Long productId : reserved.keySet()) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(productId, products.get(productId).getSlug()));
         }
         
         order.setTotalCents(totalCents);
@@ -74,19 +96,20 @@ public class OrderService {
         
         // Process payment
         if ("stripe".equals(request.getPaymentMethod())) {
-            String paymentId = paymentService.createPaymentIntent(order);
-            order.setPaymentId(paymentId);
-            order = orderRepository.save(order);
+            // The PaymentIntent is created after commit, off the request thread
+            eventPublisher.publishEvent(new OrderPlacedEvent(order.getId(), order.getTotalCents(), order.getCurrency()));
         } else {
             // Mock payment - auto-approve
             order.setStatus(Order.OrderStatus.PAID);
             order.setPaymentId("MOCK_" + System.currentTimeMillis());
             order = orderRepository.save(order);
         }
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, null));
         
         return OrderDTO.fromOrder(order);
     }
     
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getUserOrders(Long userId, int page, int size) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -96,6 +119,24 @@ public class OrderService {
                 .map(OrderDTO::fromOrder);
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> getUserOrdersAfter(Long userId, String cursor, int size) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        KeysetCursor after = KeysetCursor.decode(cursor, ORDER_CURSOR_SORT);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Order> rows = after == null
+                ? orderRepository.findByUserOrderByCreatedAtDescIdDesc(user, limit)
+                : orderRepository.findByUserBefore(user, parseCreatedAt(after), after.id(), limit);
+        return toCursorPage(rows, size);
+    }
+    
+    /**
+     * Reads from the primary: customers open an order straight after placing it, before a
+     * lagging replica would have it.
+     */
+    @Transactional
     public OrderDTO getOrderById(Long userId, Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
@@ -107,32 +148,97 @@ public class OrderService {
         return OrderDTO.fromOrder(order);
     }
     
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getAllOrders(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return orderRepository.findAll(pageable).map(OrderDTO::fromOrder);
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> getAllOrdersAfter(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor, ORDER_CURSOR_SORT);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Order> rows = after == null
+                ? orderRepository.findAllByOrderByCreatedAtDescIdDesc(limit)
+                : orderRepository.findAllBefore(parseCreatedAt(after), after.id(), limit);
+        return toCursorPage(rows, size);
+    }
+    
+    private CursorPage<OrderDTO> toCursorPage(List<Order> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<Order> orders = hasNext ? rows.subList(0, size) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new KeysetCursor(ORDER_CURSOR_SORT, last.getCreatedAt().toString(), last.getId()).encode();
+        }
+        
+        return CursorPage.<OrderDTO>builder()
+                .content(orders.stream().map(OrderDTO::fromOrder).collect(Collectors.toList()))
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    private static LocalDateTime parseCreatedAt(KeysetCursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.value());
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
     @Transactional
     public OrderDTO updateOrderStatus(Long orderId, String status) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.valueOf(status));
         order = orderRepository.save(order);
+        if (previousStatus != order.getStatus()) {
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, previousStatus));
+        }
         
         return OrderDTO.fromOrder(order);
     }
     
-    public OrderAnalytics getAnalytics() {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+    /**
+     * Cancels a Stripe order that never got a PaymentIntent and returns the stock its
+     * checkout reserved. Does nothing once the order has a payment id or has moved on
+     * from PENDING, so it cannot undo a payment that arrived in the meantime.
+     */
+    @Transactional
+    public void cancelUnpaidOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (order.getStatus() != Order.OrderStatus.PENDING || order.getPaymentId() != null) {
+            return;
+        }
         
-        Long revenue = orderRepository.calculateRevenue(thirtyDaysAgo);
-        Long orderCount = orderRepository.countOrdersSince(thirtyDaysAgo);
+        SortedMap<Long, Integer> reserved = new TreeMap<>();
+        Map<Long, String> slugs = new TreeMap<>();
+        for (OrderItem item : order.getItems()) {
+            reserved.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            slugs.put(item.getProduct().getId(), item.getProduct().getSlug());
+        }
+        productRepository.incrementStock(reserved);
+        for (Long productId : reserved.keySet()) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(productId, slugs.get(productId)));
+        }
         
-        return new OrderAnalytics(
-                revenue != null ? revenue : 0L,
-                orderCount != null ? orderCount : 0L
-        );
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        order = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, Order.OrderStatus.PENDING));
+    }
+    
+    @Transactional(readOnly = true)
+    public OrderAnalytics getAnalytics() {
+        LocalDateTime now = LocalDateTime.now();
+        SalesReportDTO.Bucket totals = salesRollupService.summarize(now.minusDays(30), now);
+        return new OrderAnalytics(totals.getRevenueCents(), totals.getOrderCount());
     }
     
     public record OrderAnalytics(Long revenueCents, Long orderCount) {
@@ -0,0 +1,25 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when an order is placed ({@code previousStatus} is null) or its status
+ * changes. Carries everything the sales rollups need so listeners never reload the order.
+ */
+public record OrderStatusChangedEvent(Long orderId, LocalDateTime createdAt, Order.OrderStatus previousStatus,
+                                      Order.OrderStatus status, long totalCents, List<Line> lines) {
+    
+    public static OrderStatusChangedEvent of(Order order, Order.OrderStatus previousStatus) {
+        List<Line> lines = order.getItems().stream()
+                .map(item -> new Line(item.getProduct().getId(), item.getQuantity(), item.getUnitPriceCents()))
+                .toList();
+        return new OrderStatusChangedEvent(order.getId(), order.getCreatedAt(), previousStatus,
+                order.getStatus(), order.getTotalCents(), lines);
+    }
+    
+    public record Line(Long productId, int quantity, long unitPriceCents) {
+    }
+}
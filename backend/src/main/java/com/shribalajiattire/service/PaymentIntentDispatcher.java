@@ -0,0 +1,97 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.config.AsyncConfig;
+import com.shribalajiattire.model.Order;
+import com.shribalajiattire.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Creates the Stripe PaymentIntent for a freshly committed order. Runs on the
+ * payment executor after the checkout transaction has released its connection,
+ * so provider latency never holds database resources.
+ * <p>
+ * An order whose intent could not be created, because Stripe failed or the executor
+ * was full, stays PENDING without a payment id. A scheduled job retries those orders
+ * and cancels the ones that are still without an intent after {@code expire-after},
+ * returning the stock their checkout reserved.
+ */
+@Slf4j
+@Component
+public class PaymentIntentDispatcher {
+    
+    private static final String PAYMENT_METHOD = "stripe";
+    
+    private final PaymentService paymentService;
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final TaskExecutor paymentExecutor;
+    private final Duration retryMinAge;
+    private final Duration expireAfter;
+    private final int retryBatchSize;
+    
+    public PaymentIntentDispatcher(PaymentService paymentService,
+                                   OrderRepository orderRepository,
+                                   OrderService orderService,
+                                   @Qualifier(AsyncConfig.PAYMENT_EXECUTOR) TaskExecutor paymentExecutor,
+                                   @Value("${app.payments.retry.min-age}") Duration retryMinAge,
+                                   @Value("${app.payments.retry.expire-after}") Duration expireAfter,
+                                   @Value("${app.payments.retry.batch-size}") int retryBatchSize) {
+        this.paymentService = paymentService;
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.paymentExecutor = paymentExecutor;
+        this.retryMinAge = retryMinAge;
+        this.expireAfter = expireAfter;
+        this.retryBatchSize = retryBatchSize;
+    }
+    
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        try {
+            paymentExecutor.execute(() -> createPaymentIntent(event.orderId(), event.totalCents(), event.currency()));
+        } catch (TaskRejectedException e) {
+            // The order is already committed, so the checkout must not fail; the retry job picks it up
+            log.warn("Payment executor is full, leaving order {} to the retry job", event.orderId());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.payments.retry.interval}",
+               initialDelayString = "${app.payments.retry.interval}")
+    public void retryMissingPaymentIntents() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiredBefore = now.minus(expireAfter);
+        List<Order> orders = orderRepository.findWithoutPaymentId(Order.OrderStatus.PENDING, PAYMENT_METHOD,
+                now.minus(retryMinAge), PageRequest.of(0, retryBatchSize));
+        
+        for (Order order : orders) {
+            if (order.getCreatedAt().isBefore(expiredBefore)) {
+                log.warn("Cancelling order {}: no payment intent after {}", order.getId(), expireAfter);
+                orderService.cancelUnpaidOrder(order.getId());
+            } else {
+                createPaymentIntent(order.getId(), order.getTotalCents(), order.getCurrency());
+            }
+        }
+    }
+    
+    private void createPaymentIntent(Long orderId, Long totalCents, String currency) {
+        try {
+            String paymentId = paymentService.createPaymentIntent(orderId, totalCents, currency);
+            orderRepository.attachPaymentId(orderId, paymentId);
+        } catch (RuntimeException e) {
+            // The order stays PENDING without a payment id; the idempotency key makes a later retry safe
+            log.error("Could not create payment intent for order {}", orderId, e);
+        }
+    }
+}
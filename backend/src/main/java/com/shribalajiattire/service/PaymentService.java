@@ -1,13 +1,17 @@
 package com.shribalajiattire.service;
 
-import com.shribalajiattire.model.Order;
-import com.stripe.Stripe;
+import com.stripe.StripeClient;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.PaymentIntentCreateParams;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
 
 @Slf4j
 @Service
@@ -16,18 +20,48 @@ public class PaymentService {
     @Value("${app.stripe.api-key}")
     private String stripeApiKey;
     
-    public String createPaymentIntent(Order order) {
+    @Value("${app.stripe.api-base:}")
+    private String stripeApiBase;
+    
+    @Value("${app.stripe.connect-timeout}")
+    private Duration connectTimeout;
+    
+    @Value("${app.stripe.read-timeout}")
+    private Duration readTimeout;
+    
+    @Value("${app.stripe.max-network-retries}")
+    private int maxNetworkRetries;
+    
+    private StripeClient stripeClient;
+    
+    @PostConstruct
+    void initClient() {
+        StripeClient.StripeClientBuilder builder = StripeClient.builder()
+                .setApiKey(stripeApiKey)
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setReadTimeout((int) readTimeout.toMillis())
+                .setMaxNetworkRetries(maxNetworkRetries);
+        // Points the client at a local stand-in such as stripe-mock
+        if (StringUtils.hasText(stripeApiBase)) {
+            builder.setApiBase(stripeApiBase);
+        }
+        stripeClient = builder.build();
+    }
+    
+    public String createPaymentIntent(Long orderId, long amountCents, String currency) {
         try {
-            Stripe.apiKey = stripeApiKey;
-            
             PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                    .setAmount(order.getTotalCents())
-                    .setCurrency(order.getCurrency().toLowerCase())
-                    .setDescription("Order #" + order.getId())
-                    .putMetadata("orderId", order.getId().toString())
+                    .setAmount(amountCents)
+                    .setCurrency(currency.toLowerCase())
+                    .setDescription("Order #" + orderId)
+                    .putMetadata("orderId", orderId.toString())
+                    .build();
+            // A fixed key per order lets Stripe collapse retried requests into one intent
+            RequestOptions options = RequestOptions.builder()
+                    .setIdempotencyKey("order-" + orderId + "-payment-intent")
                     .build();
             
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+            PaymentIntent paymentIntent = stripeClient.paymentIntents().create(params, options);
             log.info("Created payment intent: {}", paymentIntent.getId());
             
             return paymentIntent.getId();
@@ -39,8 +73,7 @@ public class PaymentService {
     
     public String getPaymentClientSecret(String paymentIntentId) {
         try {
-            Stripe.apiKey = stripeApiKey;
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
+            PaymentIntent paymentIntent = stripeClient.paymentIntents().retrieve(paymentIntentId);
             return paymentIntent.getClientSecret();
         } catch (StripeException e) {
             log.error("Failed to retrieve payment intent", e);
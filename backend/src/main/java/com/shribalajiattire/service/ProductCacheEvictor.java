@@ -0,0 +1,42 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictor {
+    
+    private final CacheManager cacheManager;
+    private final CatalogVersion catalogVersion;
+    
+    // Runs ahead of CatalogVersion, while the entries to drop are still keyed by the current version
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.productId(), event.slug());
+    }
+    
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        evict(event.productId(), event.slug());
+    }
+    
+    private void evict(Long productId, String slug) {
+        Cache byId = cacheManager.getCache(CacheConfig.PRODUCTS);
+        if (byId != null) {
+            byId.evict(catalogVersion.productKey(productId));
+        }
+        Cache bySlug = cacheManager.getCache(CacheConfig.PRODUCTS_BY_SLUG);
+        if (bySlug != null && slug != null) {
+            bySlug.evict(catalogVersion.productKey(slug));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ProductChangedEvent(Long productId, String name, String slug, String sku, String description,
+                                  Long priceCents, List<String> sizes, List<String> colors, boolean active,
+                                  LocalDateTime createdAt) {
+    
+    public static ProductChangedEvent of(Product product) {
+        return new ProductChangedEvent(
+                product.getId(),
+                product.getName(),
+                product.getSlug(),
+                product.getSku(),
+                product.getDescription(),
+                product.getPriceCents(),
+                List.copyOf(product.getSizes()),
+                List.copyOf(product.getColors()),
+                Boolean.TRUE.equals(product.getActive()),
+                product.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,359 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of product ids per size, color, price range and active state.
+ * Filters are evaluated by intersecting facets and unioning the values selected within
+ * a facet; each facet's counts ignore that facet's own selection so the sidebar can
+ * show how many products every alternative value would yield.
+ * <p>
+ * The listing sort keys are kept alongside, so a filtered listing can be sorted and cut
+ * to a page here and only that page's rows loaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductFacetIndex {
+    
+    private static final long[] PRICE_BOUNDS_CENTS = {0L, 100000L, 200000L, 300000L, 500000L, Long.MAX_VALUE};
+    
+    private final ProductRepository productRepository;
+    
+    private final Map<String, RoaringBitmap> bySize = new TreeMap<>();
+    private final Map<String, RoaringBitmap> byColor = new TreeMap<>();
+    private final RoaringBitmap[] byPriceRange = newPriceRanges();
+    private final RoaringBitmap active = new RoaringBitmap();
+    private final Map<Integer, Long> prices = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Map<Integer, LocalDateTime> createdAts = new HashMap<>();
+    private final Map<Integer, List<String>> sizesById = new HashMap<>();
+    private final Map<Integer, List<String>> colorsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductRepository.FacetFields> products = productRepository.findFacetFields();
+        List<ProductRepository.FacetValue> sizes = productRepository.findSizeFacetValues();
+        List<ProductRepository.FacetValue> colors = productRepository.findColorFacetValues();
+        
+        lock.writeLock().lock();
+        try {
+            bySize.clear();
+            byColor.clear();
+            for (RoaringBitmap range : byPriceRange) {
+                range.clear();
+            }
+            active.clear();
+            prices.clear();
+            names.clear();
+            createdAts.clear();
+            sizesById.clear();
+            colorsById.clear();
+            
+            for (ProductRepository.FacetFields product : products) {
+                int id = Math.toIntExact(product.getId());
+                addPrice(id, product.getPriceCents());
+                addSortKeys(id, product.getName(), product.getCreatedAt());
+                if (Boolean.TRUE.equals(product.getActive())) {
+                    active.add(id);
+                }
+            }
+            for (ProductRepository.FacetValue size : sizes) {
+                addValue(bySize, sizesById, Math.toIntExact(size.getProductId()), size.getValue());
+            }
+            for (ProductRepository.FacetValue color : colors) {
+                addValue(byColor, colorsById, Math.toIntExact(color.getProductId()), color.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        log.info("Built facet bitmaps for {} products ({} sizes, {} colors)",
+                products.size(), bySize.size(), byColor.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        int id = Math.toIntExact(event.productId());
+        
+        lock.writeLock().lock();
+        try {
+            removeValues(bySize, sizesById.remove(id), id);
+            removeValues(byColor, colorsById.remove(id), id);
+            Long previousPrice = prices.remove(id);
+            if (previousPrice != null) {
+                byPriceRange[priceRangeOf(previousPrice)].remove(id);
+            }
+            
+            addPrice(id, event.priceCents());
+            addSortKeys(id, event.name(), event.createdAt());
+            for (String size : event.sizes()) {
+                addValue(bySize, sizesById, id, size);
+            }
+            for (String color : event.colors()) {
+                addValue(byColor, colorsById, id, color);
+            }
+            if (event.active()) {
+                active.add(id);
+            } else {
+                active.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Evaluates the filters over active products. {@code restrictTo} limits the candidates
+     * (for example to text search hits) and is ignored when null; empty or null value lists
+     * leave that facet unfiltered.
+     */
+    public Selection select(Collection<Long> restrictTo, List<String> sizes, List<String> colors,
+                            Long minPriceCents, Long maxPriceCents) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = active.clone();
+            if (restrictTo != null) {
+                base.and(toBitmap(restrictTo));
+            }
+            
+            RoaringBitmap sizeFilter = union(bySize, sizes);
+            RoaringBitmap colorFilter = union(byColor, colors);
+            RoaringBitmap priceFilter = priceRange(minPriceCents, maxPriceCents);
+            
+            RoaringBitmap matches = intersect(base, sizeFilter, colorFilter, priceFilter);
+            
+            return new Selection(
+                    matches,
+                    count(bySize, intersect(base, colorFilter, priceFilter)),
+                    count(byColor, intersect(base, sizeFilter, priceFilter)),
+                    countPriceRanges(intersect(base, sizeFilter, colorFilter))
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Orders matching ids by the sort property, ties broken by id in the same direction,
+     * as the seek query orders rows. With {@code afterId}, only the ids that sort after
+     * {@code afterValue} and that id are returned.
+     */
+    public List<Long> sortedIds(RoaringBitmap matches, Sort.Order order, Comparable<?> afterValue, Long afterId) {
+        String property = order.getProperty();
+        boolean ascending = order.isAscending();
+        
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>(matches.getCardinality());
+            matches.forEach((int id) -> {
+                if (afterId == null || compare(sortKey(id, property), id, afterValue, afterId, ascending) > 0) {
+                    ids.add((long) id);
+                }
+            });
+            ids.sort((a, b) -> compare(sortKey(a.intValue(), property), a,
+                    sortKey(b.intValue(), property), b, ascending));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private Comparable<?> sortKey(int id, String property) {
+        return switch (property) {
+            case "priceCents" -> prices.get(id);
+            case "name" -> names.get(id);
+            default -> createdAts.get(id);
+        };
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Comparable key, long id, Comparable otherKey, long otherId, boolean ascending) {
+        int result;
+        if (key == null || otherKey == null) {
+            result = key == otherKey ? 0 : key == null ? -1 : 1;
+        } else {
+            result = key.compareTo(otherKey);
+        }
+        if (result == 0) {
+            result = Long.compare(id, otherId);
+        }
+        return ascending ? result : -result;
+    }
+    
+    private RoaringBitmap union(Map<String, RoaringBitmap> facet, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        
+        RoaringBitmap result = new RoaringBitmap();
+        for (String value : values) {
+            RoaringBitmap bitmap = facet.get(value);
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+    
+    private RoaringBitmap priceRange(Long minPriceCents, Long maxPriceCents) {
+        if (minPriceCents == null && maxPriceCents == null) {
+            return null;
+        }
+        
+        long min = minPriceCents != null ? minPriceCents : 0L;
+        long max = maxPriceCents != null ? maxPriceCents : Long.MAX_VALUE;
+        RoaringBitmap result = new RoaringBitmap();
+        for (int i = 0; i < byPriceRange.length; i++) {
+            long lower = PRICE_BOUNDS_CENTS[i];
+            long upper = PRICE_BOUNDS_CENTS[i + 1];
+            if (upper <= min || lower > max) {
+                continue;
+            }
+            if (lower >= min && upper - 1 <= max) {
+                result.or(byPriceRange[i]);
+            } else {
+                byPriceRange[i].forEach((int id) -> {
+                    long price = prices.get(id);
+                    if (price >= min && price <= max) {
+                        result.add(id);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+    
+    private static RoaringBitmap intersect(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = base.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+    
+    private static Map<String, Integer> count(Map<String, RoaringBitmap> facet, RoaringBitmap candidates) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        facet.forEach((value, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(bitmap, candidates);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+    
+    private Map<String, Integer> countPriceRanges(RoaringBitmap candidates) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < byPriceRange.length; i++) {
+            int count = RoaringBitmap.andCardinality(byPriceRange[i], candidates);
+            if (count > 0) {
+                counts.put(priceRangeLabel(i), count);
+            }
+        }
+        return counts;
+    }
+    
+    private void addPrice(int id, Long priceCents) {
+        if (priceCents == null) {
+            return;
+        }
+        prices.put(id, priceCents);
+        byPriceRange[priceRangeOf(priceCents)].add(id);
+    }
+    
+    private void addSortKeys(int id, String name, LocalDateTime createdAt) {
+        if (name != null) {
+            names.put(id, name);
+        }
+        if (createdAt != null) {
+            // Stored at microsecond precision, which is what reads back from the database
+            createdAts.put(id, createdAt.truncatedTo(ChronoUnit.MICROS));
+        }
+    }
+    
+    private static void addValue(Map<String, RoaringBitmap> facet, Map<Integer, List<String>> valuesById,
+                                 int id, String value) {
+        facet.computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+        valuesById.computeIfAbsent(id, i -> new ArrayList<>()).add(value);
+    }
+    
+    private static void removeValues(Map<String, RoaringBitmap> facet, List<String> values, int id) {
+        if (values == null) {
+            return;
+        }
+        for (String value : values) {
+            RoaringBitmap bitmap = facet.get(value);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    facet.remove(value);
+                }
+            }
+        }
+    }
+    
+    private static RoaringBitmap toBitmap(Collection<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long id : ids) {
+            bitmap.add(Math.toIntExact(id));
+        }
+        return bitmap;
+    }
+    
+    private static int priceRangeOf(long priceCents) {
+        for (int i = 1; i < PRICE_BOUNDS_CENTS.length; i++) {
+            if (priceCents < PRICE_BOUNDS_CENTS[i]) {
+                return i - 1;
+            }
+        }
+        return PRICE_BOUNDS_CENTS.length - 2;
+    }
+    
+    private static String priceRangeLabel(int range) {
+        long lower = PRICE_BOUNDS_CENTS[range] / 100;
+        long upper = PRICE_BOUNDS_CENTS[range + 1];
+        return upper == Long.MAX_VALUE ? lower + "+" : lower + "-" + upper / 100;
+    }
+    
+    private static RoaringBitmap[] newPriceRanges() {
+        RoaringBitmap[] ranges = new RoaringBitmap[PRICE_BOUNDS_CENTS.length - 1];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = new RoaringBitmap();
+        }
+        return ranges;
+    }
+    
+    public record Selection(RoaringBitmap matches, Map<String, Integer> sizes, Map<String, Integer> colors,
+                            Map<String, Integer> priceRanges) {
+        
+        public List<Long> productIds() {
+            List<Long> ids = new ArrayList<>(matches.getCardinality());
+            matches.forEach((int id) -> ids.add((long) id));
+            return ids;
+        }
+    }
+}
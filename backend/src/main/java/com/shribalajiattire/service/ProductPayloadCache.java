@@ -0,0 +1,148 @@
+package com.shribalajiattire.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.ProductJson;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.service.CatalogVersion.VersionedKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON for the most requested products, used for detail pages and listing
+ * cards alike since both render a {@link ProductDTO}. A hit skips building the DTO, the
+ * lazy collection loads behind it and Jackson's pass over it; entries are dropped when
+ * the product changes and rebuilt by the next read. With the cache disabled every
+ * payload is serialized per request, as before.
+ * <p>
+ * Entries are keyed by {@link CatalogVersion#productKey} taken before the product is
+ * read. Eviction only frees memory: a payload built from a read that raced with a write
+ * sits under the superseded version, where no later lookup goes.
+ */
+@Component
+public class ProductPayloadCache {
+    
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final boolean enabled;
+    private final Cache<VersionedKey, ProductJson> byId;
+    private final Cache<VersionedKey, ProductJson> bySlug;
+    
+    public ProductPayloadCache(ObjectMapper objectMapper,
+                               CatalogVersion catalogVersion,
+                               @Value("${app.cache.product-payloads.enabled}") boolean enabled,
+                               @Value("${app.cache.product-payloads.max-size}") long maxSize,
+                               @Value("${app.cache.products.ttl}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.enabled = enabled;
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.bySlug = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    }
+    
+    public ProductJson byId(Long id, Supplier<ProductDTO> loader) {
+        VersionedKey key = catalogVersion.productKey(id);
+        ProductJson json = enabled ? byId.getIfPresent(key) : null;
+        return json != null ? json : store(loader.get(), key.version());
+    }
+    
+    public ProductJson bySlug(String slug, Supplier<ProductDTO> loader) {
+        VersionedKey key = catalogVersion.productKey(slug);
+        ProductJson json = enabled ? bySlug.getIfPresent(key) : null;
+        return json != null ? json : store(loader.get(), key.version());
+    }
+    
+    /**
+     * Listing cards for a page of products in page order. Only products without a cached
+     * card are handed to {@code render}, so a fully cached page needs no collection fetches.
+     * <p>
+     * {@code asOf} is the catalog version read before the page was queried. A rendered card
+     * is only cached when its product has not been written since, because the row it was
+     * built from may predate that write.
+     */
+    public List<ProductJson> cards(List<Product> products, long asOf,
+                                   Function<List<Product>, List<ProductDTO>> render) {
+        List<ProductJson> cards = new ArrayList<>(products.size());
+        List<VersionedKey> keys = new ArrayList<>(products.size());
+        List<Product> misses = new ArrayList<>();
+        for (Product product : products) {
+            VersionedKey key = catalogVersion.productKey(product.getId());
+            ProductJson json = enabled ? byId.getIfPresent(key) : null;
+            keys.add(key);
+            cards.add(json);
+            if (json == null) {
+                misses.add(product);
+            }
+        }
+        if (misses.isEmpty()) {
+            return cards;
+        }
+        
+        List<ProductDTO> rendered = render.apply(misses);
+        for (int i = 0, m = 0; i < cards.size(); i++) {
+            if (cards.get(i) == null) {
+                ProductDTO product = rendered.get(m++);
+                long version = keys.get(i).version();
+                cards.set(i, version <= asOf ? store(product, version) : serialize(product));
+            }
+        }
+        return cards;
+    }
+    
+    // Same ordering as ProductCacheEvictor: evict while the entry's version is still current
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.productId(), event.slug());
+    }
+    
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        evict(event.productId(), event.slug());
+    }
+    
+    /**
+     * Caches the payload under the version read before the product was loaded; id and slug
+     * versions move together, so one version stamps both entries.
+     */
+    private ProductJson store(ProductDTO product, long version) {
+        ProductJson json = serialize(product);
+        if (enabled) {
+            byId.put(new VersionedKey(product.getId(), version), json);
+            if (product.getSlug() != null) {
+                bySlug.put(new VersionedKey(product.getSlug(), version), json);
+            }
+        }
+        return json;
+    }
+    
+    private ProductJson serialize(ProductDTO product) {
+        try {
+            return new ProductJson(objectMapper.writeValueAsString(product));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product " + product.getId(), e);
+        }
+    }
+    
+    private void evict(Long productId, String slug) {
+        if (productId != null) {
+            byId.invalidate(catalogVersion.productKey(productId));
+        }
+        if (slug != null) {
+            bySlug.invalidate(catalogVersion.productKey(slug));
+        }
+    }
+}
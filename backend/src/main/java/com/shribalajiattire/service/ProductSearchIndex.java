@@ -0,0 +1,173 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenized inverted index over the name, SKU and description of active products.
+ * Every query token must match a term exactly or as a prefix; results are ranked by
+ * field weight so a SKU or name hit outranks a description hit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+    
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final float SKU_WEIGHT = 5.0f;
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_PENALTY = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    
+    private final ProductRepository productRepository;
+    
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductRepository.SearchableFields> products = productRepository.findSearchableFields();
+        
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            for (ProductRepository.SearchableFields product : products) {
+                addDocument(product.getId(), product.getName(), product.getSku(), product.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        log.info("Indexed {} products for search ({} terms)", products.size(), postings.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.productId());
+            if (event.active()) {
+                addDocument(event.productId(), event.name(), event.sku(), event.description());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the ids of all products matching every token of the query, best match first.
+     */
+    public List<Long> search(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Map<Long, Float> scores;
+        lock.readLock().lock();
+        try {
+            scores = scoreToken(tokens.get(0));
+            for (int i = 1; i < tokens.size() && !scores.isEmpty(); i++) {
+                Map<Long, Float> tokenScores = scoreToken(tokens.get(i));
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.<Long, Float>comparingByKey().reversed()));
+        
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Float> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+    
+    private Map<Long, Float> scoreToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) {
+            scores.putAll(exact);
+        }
+        
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            Map<String, Map<Long, Float>> prefixed = postings.subMap(token, false, token + Character.MAX_VALUE, false);
+            for (Map<Long, Float> documents : prefixed.values()) {
+                documents.forEach((id, weight) -> scores.merge(id, weight * PREFIX_PENALTY, Math::max));
+            }
+        }
+        
+        return scores;
+    }
+    
+    private void addDocument(Long id, String name, String sku, String description) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, description, DESCRIPTION_WEIGHT);
+        addTerms(weights, name, NAME_WEIGHT);
+        addTerms(weights, sku, SKU_WEIGHT);
+        
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        documentTerms.put(id, weights.keySet());
+    }
+    
+    private void removeDocument(Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        
+        for (String term : terms) {
+            Map<Long, Float> documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(id);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+    
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : new HashSet<>(tokenize(text))) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
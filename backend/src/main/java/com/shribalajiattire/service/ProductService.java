@@ -1,23 +1,40 @@
 package com.shribalajiattire.service;
 
+import com.shribalajiattire.config.CacheConfig;
 import com.shribalajiattire.dto.CreateProductRequest;
+import com.shribalajiattire.dto.CursorPage;
+import com.shribalajiattire.dto.FacetedProductsDTO;
 import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.ProductFacetsDTO;
+import com.shribalajiattire.dto.ProductJson;
 import com.shribalajiattire.model.Product;
 import com.shribalajiattire.model.ProductImage;
 import com.shribalajiattire.repository.ProductRepository;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,137 +42,385 @@ public class ProductService {
     
     private final ProductRepository productRepository;
     private final FileStorageService fileStorageService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductPayloadCache productPayloadCache;
+    private final CatalogVersion catalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     
-    public Page<ProductDTO> getProducts(String query, List<String> sizes, List<String> colors,
-                                        Double minPrice, Double maxPrice, String sort,
-                                        int page, int size) {
-        Sort sortOrder = getSortOrder(sort);
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+    /**
+     * A page of active products, rendered from the pre-serialized payload cache.
+     * <p>
+     * Reads from the primary, like every catalog read that fills a cache or is served
+     * under an ETag: a lagging replica could hand back a row that the write's eviction
+     * and version bump have already moved past, and it would then be cached or validated
+     * as current.
+     */
+    @Transactional
+    public Page<ProductJson> getProductCards(String query, List<String> sizes, List<String> colors,
+                                             Double minPrice, Double maxPrice, String sort,
+                                             int page, int size) {
+        long asOf = catalogVersion.catalogVersion();
+        List<Long> searchResults = search(query);
+        if (searchResults != null && searchResults.isEmpty()) {
+            return Page.empty(PageRequest.of(page, size));
+        }
         
-        Specification<Product> spec = (root, criteriaQuery, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            
-            predicates.add(criteriaBuilder.isTrue(root.get("active")));
-            
-            if (query != null && !query.isEmpty()) {
-                String likePattern = "%" + query.toLowerCase() + "%";
-                Predicate namePredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("name")), likePattern);
-                Predicate descPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("description")), likePattern);
-                predicates.add(criteriaBuilder.or(namePredicate, descPredicate));
+        if (selectsFromIndex(searchResults, sizes, colors)) {
+            ProductFacetIndex.Selection selection = productFacetIndex.select(
+                    searchResults, sizes, colors, toCents(minPrice), toCents(maxPrice));
+            return renderPage(findSelected(selection, searchResults, sort, page, size), asOf);
+        }
+        
+        return renderPage(findProducts(minPrice, maxPrice, sort, page, size), asOf);
+    }
+    
+    // Primary read, see getProductCards
+    @Transactional
+    public FacetedProductsDTO<ProductJson> getFacetedProducts(String query, List<String> sizes, List<String> colors,
+                                                              Double minPrice, Double maxPrice, String sort,
+                                                              int page, int size) {
+        long asOf = catalogVersion.catalogVersion();
+        List<Long> searchResults = search(query);
+        ProductFacetIndex.Selection selection = productFacetIndex.select(
+                searchResults, sizes, colors, toCents(minPrice), toCents(maxPrice));
+        
+        Page<ProductJson> products;
+        if (selection.matches().isEmpty()) {
+            products = Page.empty(PageRequest.of(page, size));
+        } else if (selectsFromIndex(searchResults, sizes, colors)) {
+            products = renderPage(findSelected(selection, searchResults, sort, page, size), asOf);
+        } else {
+            products = renderPage(findProducts(minPrice, maxPrice, sort, page, size), asOf);
+        }
+        
+        return FacetedProductsDTO.<ProductJson>builder()
+                .products(products)
+                .facets(ProductFacetsDTO.builder()
+                        .sizes(selection.sizes())
+                        .colors(selection.colors())
+                        .priceRanges(selection.priceRanges())
+                        .build())
+                .build();
+    }
+    
+    // Primary read, see getProductCards
+    @Transactional
+    public CursorPage<ProductJson> getProductsAfter(String query, List<String> sizes, List<String> colors,
+                                                    Double minPrice, Double maxPrice, String sort,
+                                                    String cursor, int size) {
+        Sort.Order order = getSortOrder(sort).iterator().next();
+        String sortKey = order.getProperty() + ":" + order.getDirection();
+        KeysetCursor after = KeysetCursor.decode(cursor, sortKey);
+        long asOf = catalogVersion.catalogVersion();
+        
+        List<Long> searchResults = search(query);
+        if (searchResults != null && searchResults.isEmpty()) {
+            return CursorPage.<ProductJson>builder().content(List.of()).size(size).build();
+        }
+        
+        List<Product> rows;
+        if (selectsFromIndex(searchResults, sizes, colors)) {
+            ProductFacetIndex.Selection selection = productFacetIndex.select(
+                    searchResults, sizes, colors, toCents(minPrice), toCents(maxPrice));
+            List<Long> ids = after != null
+                    ? productFacetIndex.sortedIds(selection.matches(), order,
+                            parseSortValue(order.getProperty(), after.value()), after.id())
+                    : productFacetIndex.sortedIds(selection.matches(), order, null, null);
+            rows = findAllInOrder(ids.subList(0, Math.min(size + 1, ids.size())));
+        } else {
+            Specification<Product> spec = filterSpec(minPrice, maxPrice);
+            if (after != null) {
+                spec = spec.and(seekAfter(order, after));
             }
-            
-            if (sizes != null && !sizes.isEmpty()) {
-                predicates.add(root.join("sizes").in(sizes));
+            Sort seekOrder = Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+            rows = productRepository.findBy(spec, q -> q.sortBy(seekOrder).limit(size + 1).all());
+        }
+        
+        boolean hasNext = rows.size() > size;
+        List<Product> products = hasNext ? rows.subList(0, size) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = new KeysetCursor(sortKey, sortValue(last, order.getProperty()), last.getId()).encode();
+        }
+        
+        return CursorPage.<ProductJson>builder()
+                .content(toCards(products, asOf))
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    private Page<ProductJson> renderPage(Page<Product> page, long asOf) {
+        return new PageImpl<>(toCards(page.getContent(), asOf), page.getPageable(), page.getTotalElements());
+    }
+    
+    private List<ProductDTO> toDTOs(List<Product> products) {
+        fetchCollections(products);
+        return products.stream().map(ProductDTO::fromProduct).collect(Collectors.toList());
+    }
+    
+    private List<ProductJson> toCards(List<Product> products, long asOf) {
+        return productPayloadCache.cards(products, asOf, this::toDTOs);
+    }
+    
+    /**
+     * Initializes sizes, colors and images for a whole page in three queries instead of
+     * three lazy loads per product.
+     */
+    private void fetchCollections(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        List<Long> ids = products.stream().map(Product::getId).collect(Collectors.toList());
+        productRepository.fetchSizes(ids);
+        productRepository.fetchColors(ids);
+        productRepository.fetchImages(ids);
+    }
+    
+    private List<Long> search(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        return productSearchIndex.search(query);
+    }
+    
+    /**
+     * Searches and size or color filters are answered from the facet index, which pages
+     * in memory; only listings narrowed by price alone are queried from the database.
+     */
+    private static boolean selectsFromIndex(List<Long> searchResults, List<String> sizes, List<String> colors) {
+        return searchResults != null
+                || (sizes != null && !sizes.isEmpty())
+                || (colors != null && !colors.isEmpty());
+    }
+    
+    /**
+     * A page of a facet index selection. The bitmap already applies every filter, so the
+     * page is sorted (or ranked by search relevance) and cut in memory and only its rows
+     * are loaded, instead of sending the whole selection to the database as an id list.
+     */
+    private Page<Product> findSelected(ProductFacetIndex.Selection selection, List<Long> searchResults,
+                                       String sort, int page, int size) {
+        List<Long> ids;
+        if (searchResults != null && sort == null) {
+            ids = rankByRelevance(searchResults, selection.matches());
+        } else {
+            ids = productFacetIndex.sortedIds(selection.matches(), getSortOrder(sort).iterator().next(), null, null);
+        }
+        
+        Pageable pageable = PageRequest.of(page, size);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + size, ids.size());
+        return new PageImpl<>(findAllInOrder(ids.subList(from, to)), pageable, ids.size());
+    }
+    
+    /**
+     * Loads the products in the order of {@code ids}, dropping any the index still lists
+     * but that were deactivated or removed since.
+     */
+    private List<Product> findAllInOrder(List<Long> ids) {
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null && Boolean.TRUE.equals(product.getActive())) {
+                products.add(product);
             }
+        }
+        return products;
+    }
+    
+    private Page<Product> findProducts(Double minPrice, Double maxPrice, String sort, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, getSortOrder(sort));
+        return productRepository.findAll(filterSpec(minPrice, maxPrice), pageable);
+    }
+    
+    private Specification<Product> filterSpec(Double minPrice, Double maxPrice) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
             
-            if (colors != null && !colors.isEmpty()) {
-                predicates.add(root.join("colors").in(colors));
-            }
+            predicates.add(criteriaBuilder.isTrue(root.get("active")));
             
             if (minPrice != null) {
                 predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                        root.get("priceCents"), (long) (minPrice * 100)));
+                        root.get("priceCents"), toCents(minPrice)));
             }
             
             if (maxPrice != null) {
                 predicates.add(criteriaBuilder.lessThanOrEqualTo(
-                        root.get("priceCents"), (long) (maxPrice * 100)));
+                        root.get("priceCents"), toCents(maxPrice)));
             }
             
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-        
-        return productRepository.findAll(spec, pageable).map(ProductDTO::fromProduct);
     }
     
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Product> seekAfter(Sort.Order order, KeysetCursor after) {
+        Comparable value = parseSortValue(order.getProperty(), after.value());
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            Expression<Comparable> key = root.get(order.getProperty());
+            Expression<Long> id = root.get("id");
+            // The redundant bound on the key alone gives the planner an index range to seek into
+            if (order.isAscending()) {
+                return criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(key, value), criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(key, value),
+                        criteriaBuilder.and(criteriaBuilder.equal(key, value), criteriaBuilder.greaterThan(id, after.id()))));
+            }
+            return criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(key, value), criteriaBuilder.or(
+                    criteriaBuilder.lessThan(key, value),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value), criteriaBuilder.lessThan(id, after.id()))));
+        };
+    }
+    
+    private static String sortValue(Product product, String property) {
+        return switch (property) {
+            case "priceCents" -> product.getPriceCents().toString();
+            case "name" -> product.getName();
+            default -> product.getCreatedAt().toString();
+        };
+    }
+    
+    private static Comparable<?> parseSortValue(String property, String value) {
+        try {
+            return switch (property) {
+                case "priceCents" -> Long.parseLong(value);
+                case "name" -> value;
+                default -> LocalDateTime.parse(value);
+            };
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * The search hits that survived the filters, still in relevance order.
+     */
+    private static List<Long> rankByRelevance(List<Long> rankedIds, RoaringBitmap matches) {
+        return rankedIds.stream()
+                .filter(id -> matches.contains(Math.toIntExact(id)))
+                .collect(Collectors.toList());
+    }
+    
+    // Primary read, see getProductCards
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "@catalogVersion.productKey(#id)")
+    @Transactional
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         return ProductDTO.fromProduct(product);
     }
     
+    // Primary read, see getProductCards
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_SLUG, key = "@catalogVersion.productKey(#slug)")
+    @Transactional
     public ProductDTO getProductBySlug(String slug) {
         Product product = productRepository.findBySlug(slug)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         return ProductDTO.fromProduct(product);
     }
     
-    @Transactional
     public ProductDTO createProduct(CreateProductRequest request, List<MultipartFile> images) {
         if (productRepository.existsBySku(request.getSku())) {
             throw new RuntimeException("SKU already exists");
         }
         
-        String slug = generateSlug(request.getName());
-        
-        Product product = Product.builder()
-                .name(request.getName())
-                .slug(slug)
-                .sku(request.getSku())
-                .description(request.getDescription())
-                .priceCents((long) (request.getPrice() * 100))
-                .currency("INR")
-                .sizes(request.getSizes() != null ? request.getSizes() : new ArrayList<>())
-                .colors(request.getColors() != null ? request.getColors() : new ArrayList<>())
-                .stock(request.getStock() != null ? request.getStock() : 0)
-                .active(true)
-                .build();
-        
-        product = productRepository.save(product);
-        
-        if (images != null && !images.isEmpty()) {
-            int order = 0;
-            for (MultipartFile image : images) {
-                String imageUrl = fileStorageService.storeFile(image);
-                ProductImage productImage = ProductImage.builder()
-                        .url(imageUrl)
-                        .altText(product.getName())
-                        .displayOrder(order++)
-                        .build();
-                product.addImage(productImage);
-            }
+        List<String> imageUrls = fileStorageService.storeFiles(images);
+        return inTransactionWithImages(imageUrls, () -> {
+            String slug = generateSlug(request.getName());
+            
+            Product product = Product.builder()
+                    .name(request.getName())
+                    .slug(slug)
+                    .sku(request.getSku())
+                    .description(request.getDescription())
+                    .priceCents((long) (request.getPrice() * 100))
+                    .currency("INR")
+                    .sizes(request.getSizes() != null ? request.getSizes() : new ArrayList<>())
+                    .colors(request.getColors() != null ? request.getColors() : new ArrayList<>())
+                    .stock(request.getStock() != null ? request.getStock() : 0)
+                    .active(true)
+                    .build();
+            
+            addImages(product, imageUrls);
             product = productRepository.save(product);
-        }
-        
-        return ProductDTO.fromProduct(product);
+            
+            eventPublisher.publishEvent(ProductChangedEvent.of(product));
+            return ProductDTO.fromProduct(product);
+        });
     }
     
-    @Transactional
     public ProductDTO updateProduct(Long id, CreateProductRequest request, List<MultipartFile> images) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        product.setName(request.getName());
-        product.setDescription(request.getDescription());
-        product.setPriceCents((long) (request.getPrice() * 100));
-        
-        if (request.getSizes() != null) {
-            product.setSizes(request.getSizes());
-        }
-        if (request.getColors() != null) {
-            product.setColors(request.getColors());
-        }
-        if (request.getStock() != null) {
-            product.setStock(request.getStock());
+        List<String> imageUrls = fileStorageService.storeFiles(images);
+        return inTransactionWithImages(imageUrls, () -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            
+            product.setName(request.getName());
+            product.setDescription(request.getDescription());
+            product.setPriceCents((long) (request.getPrice() * 100));
+            
+            if (request.getSizes() != null) {
+                product.setSizes(request.getSizes());
+            }
+            if (request.getColors() != null) {
+                product.setColors(request.getColors());
+            }
+            if (request.getStock() != null) {
+                product.setStock(request.getStock());
+            }
+            
+            addImages(product, imageUrls);
+            
+            product = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.of(product));
+            return ProductDTO.fromProduct(product);
+        });
+    }
+    
+    /**
+     * Runs the product write in a short transaction that only persists image URLs; the
+     * files themselves were written beforehand. Their pending references are released
+     * once the transaction has completed, and if it failed, files that neither a
+     * committed row nor another in-flight upload references are removed again.
+     */
+    private ProductDTO inTransactionWithImages(List<String> imageUrls, Supplier<ProductDTO> work) {
+        boolean committed = false;
+        try {
+            ProductDTO product = transactionTemplate.execute(status -> work.get());
+            committed = true;
+            return product;
+        } finally {
+            imageUrls.forEach(fileStorageService::release);
+            if (!committed) {
+                imageUrls.forEach(fileStorageService::deleteIfUnreferenced);
+            }
         }
-        
-        if (images != null && !images.isEmpty()) {
-            int order = product.getImages().size();
-            for (MultipartFile image : images) {
-                String imageUrl = fileStorageService.storeFile(image);
-                ProductImage productImage = ProductImage.builder()
-                        .url(imageUrl)
-                        .altText(product.getName())
-                        .displayOrder(order++)
-                        .build();
-                product.addImage(productImage);
+    }
+    
+    private void addImages(Product product, List<String> imageUrls) {
+        int order = product.getImages().size();
+        Set<String> existingUrls = product.getImages().stream()
+                .map(ProductImage::getUrl)
+                .collect(Collectors.toCollection(HashSet::new));
+        for (String imageUrl : imageUrls) {
+            // Re-uploading an image the product already has resolves to the same stored file
+            if (!existingUrls.add(imageUrl)) {
+                continue;
             }
+            product.addImage(ProductImage.builder()
+                    .url(imageUrl)
+                    .srcset(fileStorageService.srcsetFor(imageUrl))
+                    .altText(product.getName())
+                    .displayOrder(order++)
+                    .build());
         }
-        
-        product = productRepository.save(product);
-        return ProductDTO.fromProduct(product);
     }
     
     @Transactional
@@ -164,9 +429,14 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(product));
+    }
+    
+    private static Long toCents(Double price) {
+        return price != null ? (long) (price * 100) : null;
     }
     
-    private String generateSlug(String name) {
+    static String generateSlug(String name) {
         return name.toLowerCase()
                 .replaceAll("[^a-z0-9\\s-]", "")
                 .replaceAll("\\s+", "-")
@@ -0,0 +1,4 @@
+package com.shribalajiattire.service;
+
+public record ProductStockChangedEvent(Long productId, String slug) {
+}
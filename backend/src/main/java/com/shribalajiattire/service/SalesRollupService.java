@@ -0,0 +1,257 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.SalesReportDTO;
+import com.shribalajiattire.model.Order;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.model.SalesRollup;
+import com.shribalajiattire.repository.OrderRepository;
+import com.shribalajiattire.repository.ProductRepository;
+import com.shribalajiattire.repository.ProductSalesRollupRepository;
+import com.shribalajiattire.repository.SalesRollupIncrements.ProductDelta;
+import com.shribalajiattire.repository.SalesRollupIncrements.SalesDelta;
+import com.shribalajiattire.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains hourly and daily sales rollups as orders are placed and change status,
+ * so dashboard reads touch a handful of rollup rows instead of scanning orders.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+    
+    /** Statuses whose orders count towards revenue, units and product sales. */
+    static final Set<Order.OrderStatus> RECOGNISED_STATUSES = EnumSet.of(
+            Order.OrderStatus.PAID, Order.OrderStatus.PROCESSING,
+            Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+    
+    private static final int DEFAULT_REPORT_DAYS = 30;
+    private static final int MAX_HOURLY_REPORT_DAYS = 31;
+    
+    private final SalesRollupRepository salesRollupRepository;
+    private final ProductSalesRollupRepository productSalesRollupRepository;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    /**
+     * Applies the order's delta as the last step of its transaction, so rollups commit
+     * or roll back together with the order and the shared hour and day rows stay
+     * locked only for the commit itself.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        long orders = event.previousStatus() == null ? 1 : 0;
+        int sign = recognised(event.status()) - recognised(event.previousStatus());
+        if (orders == 0 && sign == 0) {
+            return;
+        }
+        
+        long units = event.lines().stream().mapToLong(OrderStatusChangedEvent.Line::quantity).sum();
+        LocalDateTime hour = event.createdAt().truncatedTo(ChronoUnit.HOURS);
+        SalesDelta delta = new SalesDelta(orders, sign, sign * event.totalCents(), sign * units);
+        salesRollupRepository.increment(SalesRollup.Granularity.HOUR, hour, delta);
+        salesRollupRepository.increment(SalesRollup.Granularity.DAY, hour.toLocalDate().atStartOfDay(), delta);
+        
+        if (sign != 0) {
+            SortedMap<Long, ProductDelta> products = new TreeMap<>();
+            for (OrderStatusChangedEvent.Line line : event.lines()) {
+                products.merge(line.productId(),
+                        new ProductDelta(sign * line.quantity(), sign * line.quantity() * line.unitPriceCents()),
+                        ProductDelta::plus);
+            }
+            salesRollupRepository.incrementProducts(hour.toLocalDate(), products);
+        }
+    }
+    
+    /**
+     * Totals for orders created in {@code [from, to)} at hour resolution. Whole days
+     * are read from daily rollups and only the partial days at either end from hourly
+     * ones, so the cost grows with the number of days rather than orders.
+     */
+    @Transactional(readOnly = true)
+    public SalesReportDTO.Bucket summarize(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS);
+        if (end.isBefore(to)) {
+            end = end.plusHours(1);
+        }
+        
+        LocalDateTime firstDay = start.toLocalDate().atStartOfDay();
+        if (firstDay.isBefore(start)) {
+            firstDay = firstDay.plusDays(1);
+        }
+        LocalDateTime lastDay = end.toLocalDate().atStartOfDay();
+        
+        if (!firstDay.isBefore(lastDay)) {
+            return total(start, salesRollupRepository.findBuckets(SalesRollup.Granularity.HOUR, start, end));
+        }
+        return total(start, Stream.of(
+                        salesRollupRepository.findBuckets(SalesRollup.Granularity.HOUR, start, firstDay),
+                        salesRollupRepository.findBuckets(SalesRollup.Granularity.DAY, firstDay, lastDay),
+                        salesRollupRepository.findBuckets(SalesRollup.Granularity.HOUR, lastDay, end))
+                .flatMap(List::stream)
+                .toList());
+    }
+    
+    /**
+     * Report for the inclusive date range, defaulting to the last 30 days.
+     */
+    @Transactional(readOnly = true)
+    public SalesReportDTO getReport(LocalDate from, LocalDate to, SalesRollup.Granularity granularity, int top) {
+        LocalDate lastDay = to != null ? to : LocalDate.now();
+        LocalDate firstDay = from != null ? from : lastDay.minusDays(DEFAULT_REPORT_DAYS - 1);
+        if (firstDay.isAfter(lastDay)) {
+            throw new RuntimeException("Report start must not be after its end");
+        }
+        if (granularity == SalesRollup.Granularity.HOUR
+                && ChronoUnit.DAYS.between(firstDay, lastDay) >= MAX_HOURLY_REPORT_DAYS) {
+            throw new RuntimeException("Hourly reports are limited to " + MAX_HOURLY_REPORT_DAYS + " days");
+        }
+        
+        LocalDateTime start = firstDay.atStartOfDay();
+        LocalDateTime end = lastDay.plusDays(1).atStartOfDay();
+        List<SalesRollup> rows = salesRollupRepository.findBuckets(granularity, start, end);
+        SalesReportDTO.Bucket totals = total(start, rows);
+        
+        return SalesReportDTO.builder()
+                .from(firstDay)
+                .to(lastDay)
+                .granularity(granularity.name())
+                .orderCount(totals.getOrderCount())
+                .paidOrderCount(totals.getPaidOrderCount())
+                .revenueCents(totals.getRevenueCents())
+                .units(totals.getUnits())
+                .buckets(rows.stream().map(SalesRollupService::toBucket).toList())
+                .topProducts(top > 0 ? topProducts(firstDay, lastDay.plusDays(1), top) : List.of())
+                .build();
+    }
+    
+    /**
+     * Rebuilds the rollups for the inclusive date range from raw orders. Orders placed
+     * in the range while this runs may be missed; re-running the range corrects them.
+     */
+    public void recompute(LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            salesRollupRepository.deleteBuckets(start, end);
+            productSalesRollupRepository.deleteDays(from, to.plusDays(1));
+            
+            SortedMap<LocalDateTime, SalesDelta> hours = new TreeMap<>();
+            try (Stream<OrderRepository.OrderTotals> totals = orderRepository.streamTotals(start, end)) {
+                totals.forEach(order -> {
+                    int paid = recognised(order.getStatus());
+                    hours.merge(order.getCreatedAt().truncatedTo(ChronoUnit.HOURS),
+                            new SalesDelta(1, paid, paid * order.getTotalCents(), 0), SalesDelta::plus);
+                });
+            }
+            
+            Map<LocalDate, SortedMap<Long, ProductDelta>> products = new TreeMap<>();
+            try (Stream<OrderRepository.OrderLine> lines = orderRepository.streamLines(start, end, RECOGNISED_STATUSES)) {
+                lines.forEach(line -> {
+                    LocalDateTime hour = line.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+                    hours.merge(hour, new SalesDelta(0, 0, 0, line.getQuantity()), SalesDelta::plus);
+                    products.computeIfAbsent(hour.toLocalDate(), day -> new TreeMap<>()).merge(line.getProductId(),
+                            new ProductDelta(line.getQuantity(), (long) line.getQuantity() * line.getUnitPriceCents()),
+                            ProductDelta::plus);
+                });
+            }
+            
+            SortedMap<LocalDateTime, SalesDelta> days = new TreeMap<>();
+            hours.forEach((hour, delta) -> {
+                salesRollupRepository.increment(SalesRollup.Granularity.HOUR, hour, delta);
+                days.merge(hour.toLocalDate().atStartOfDay(), delta, SalesDelta::plus);
+            });
+            days.forEach((day, delta) -> salesRollupRepository.increment(SalesRollup.Granularity.DAY, day, delta));
+            products.forEach(salesRollupRepository::incrementProducts);
+        });
+        
+        log.info("Recomputed sales rollups from {} to {}", from, to);
+    }
+    
+    /**
+     * Seeds the rollups from existing orders the first time the application starts with them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (salesRollupRepository.count() > 0) {
+            return;
+        }
+        LocalDateTime firstOrder = orderRepository.findFirstCreatedAt();
+        if (firstOrder != null) {
+            recompute(firstOrder.toLocalDate(), LocalDate.now());
+        }
+    }
+    
+    private List<SalesReportDTO.ProductSales> topProducts(LocalDate from, LocalDate to, int top) {
+        List<ProductSalesRollupRepository.ProductTotals> totals =
+                productSalesRollupRepository.findTopProducts(from, to, PageRequest.of(0, top));
+        Map<Long, Product> products = productRepository.findAllById(
+                        totals.stream().map(ProductSalesRollupRepository.ProductTotals::getProductId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        return totals.stream()
+                .map(row -> {
+                    Product product = products.get(row.getProductId());
+                    return SalesReportDTO.ProductSales.builder()
+                            .productId(row.getProductId())
+                            .name(product != null ? product.getName() : null)
+                            .sku(product != null ? product.getSku() : null)
+                            .units(row.getUnits())
+                            .revenueCents(row.getRevenueCents())
+                            .build();
+                })
+                .toList();
+    }
+    
+    private static SalesReportDTO.Bucket total(LocalDateTime start, List<SalesRollup> rows) {
+        SalesReportDTO.Bucket total = SalesReportDTO.Bucket.builder().start(start).build();
+        for (SalesRollup row : rows) {
+            total.setOrderCount(total.getOrderCount() + row.getOrderCount());
+            total.setPaidOrderCount(total.getPaidOrderCount() + row.getPaidOrderCount());
+            total.setRevenueCents(total.getRevenueCents() + row.getRevenueCents());
+            total.setUnits(total.getUnits() + row.getUnits());
+        }
+        return total;
+    }
+    
+    private static SalesReportDTO.Bucket toBucket(SalesRollup row) {
+        return SalesReportDTO.Bucket.builder()
+                .start(row.getBucketStart())
+                .orderCount(row.getOrderCount())
+                .paidOrderCount(row.getPaidOrderCount())
+                .revenueCents(row.getRevenueCents())
+                .units(row.getUnits())
+                .build();
+    }
+    
+    private static int recognised(Order.OrderStatus status) {
+        return status != null && RECOGNISED_STATUSES.contains(status) ? 1 : 0;
+    }
+}
@@ -0,0 +1,90 @@
+-- Schema as Hibernate generated it for the entities before the performance series, which
+-- is what existing databases running with ddl-auto validate have. They are baselined at
+-- this version and pick up everything after it from the later scripts.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL CHECK (role IN ('CUSTOMER', 'ADMIN')),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UK_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+);
+
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    slug VARCHAR(255) NOT NULL,
+    sku VARCHAR(255) NOT NULL,
+    description TEXT,
+    price_cents BIGINT NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    stock INTEGER NOT NULL,
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UK_fhmd06dsmj6k0n90swsh8ie9g UNIQUE (sku),
+    CONSTRAINT UK_ostq1ec3toafnjok09y9l7dox UNIQUE (slug)
+);
+
+CREATE TABLE product_sizes (
+    product_id BIGINT NOT NULL,
+    size VARCHAR(255),
+    CONSTRAINT FK4isa0j51hpdn7cx04m831jic4 FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE product_colors (
+    product_id BIGINT NOT NULL,
+    color VARCHAR(255),
+    CONSTRAINT FKqhu7cqni31911lmvx4fqmiw65 FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE product_images (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id BIGINT NOT NULL,
+    url VARCHAR(255) NOT NULL,
+    alt_text VARCHAR(255),
+    display_order INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKqnq71xsohugpqwf3c9gxmsuy FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    total_cents BIGINT NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255),
+    address_line1 VARCHAR(255),
+    address_line2 VARCHAR(255),
+    city VARCHAR(255),
+    state VARCHAR(255),
+    postal_code VARCHAR(255),
+    country VARCHAR(255),
+    phone VARCHAR(255),
+    status VARCHAR(255) NOT NULL
+        CHECK (status IN ('PENDING', 'PAID', 'PROCESSING', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    payment_id VARCHAR(255),
+    payment_method VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FK32ql8ubntj5uh44ph9659tiih FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price_cents BIGINT NOT NULL,
+    size VARCHAR(255),
+    color VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT FKbioxgbv59vetrxe0ejfubep1w FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT FKocimc7dtr037rh4ls4l95nlfi FOREIGN KEY (product_id) REFERENCES products (id)
+);
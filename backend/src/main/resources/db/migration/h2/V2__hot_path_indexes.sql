@@ -0,0 +1,15 @@
+-- Indexes matched to the repository queries on the request path. Each one leads with the
+-- equality column and ends with the sort keys, including id where it breaks keyset ties.
+-- Databases that ddl-auto created may already have some of them, so each is guarded.
+
+-- Customer order history, newest first, and its keyset continuation
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at, id);
+
+-- Rollup recompute reads an order's lines from the index alone
+CREATE INDEX IF NOT EXISTS idx_order_items_order_product
+    ON order_items (order_id, product_id, quantity, unit_price_cents);
+
+-- Storefront listings: active products by newest, price or name
+CREATE INDEX IF NOT EXISTS idx_products_active_created ON products (active, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_products_active_price ON products (active, price_cents, id);
+CREATE INDEX IF NOT EXISTS idx_products_active_name ON products (active, name, id);
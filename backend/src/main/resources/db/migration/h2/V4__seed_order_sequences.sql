@@ -0,0 +1,13 @@
+-- Orders and items placed before the switch to pooled sequences took identity ids, so the
+-- sequences must start past them. The pooled optimizer hands out the 50 ids ending at the
+-- value it fetches, hence MAX(id) + 51. Sequences already further along are left alone.
+
+ALTER SEQUENCE order_seq RESTART WITH (
+    SELECT GREATEST(COALESCE(MAX(id), 0) + 51,
+                    (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ORDER_SEQ'))
+    FROM orders);
+
+ALTER SEQUENCE order_item_seq RESTART WITH (
+    SELECT GREATEST(COALESCE(MAX(id), 0) + 51,
+                    (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ORDER_ITEM_SEQ'))
+    FROM order_items);
@@ -0,0 +1,3 @@
+-- The payment retry job looks up PENDING Stripe orders without a payment id, oldest
+-- first, every minute. Equality columns lead so the range on created_at is the last step.
+CREATE INDEX IF NOT EXISTS idx_orders_payment_retry ON orders (status, payment_method, payment_id, created_at);
@@ -0,0 +1,48 @@
+-- Indexes matched to the repository queries on the request path. Each one leads with the
+-- equality column and ends with the sort keys, including id where it breaks keyset ties.
+-- Databases that ddl-auto created may already have some of them, and MySQL has no
+-- IF NOT EXISTS for indexes, so each is chosen from information_schema.
+
+-- Customer order history, newest first, and its keyset continuation
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'orders'
+                 AND index_name = 'idx_orders_user_created') = 0,
+              'CREATE INDEX idx_orders_user_created ON orders (user_id, created_at, id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Rollup recompute reads an order's lines from the index alone
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'order_items'
+                 AND index_name = 'idx_order_items_order_product') = 0,
+              'CREATE INDEX idx_order_items_order_product ON order_items (order_id, product_id, quantity, unit_price_cents)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Storefront listings: active products by newest, price or name
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products'
+                 AND index_name = 'idx_products_active_created') = 0,
+              'CREATE INDEX idx_products_active_created ON products (active, created_at, id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products'
+                 AND index_name = 'idx_products_active_price') = 0,
+              'CREATE INDEX idx_products_active_price ON products (active, price_cents, id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products'
+                 AND index_name = 'idx_products_active_name') = 0,
+              'CREATE INDEX idx_products_active_name ON products (active, name, id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,7 @@
+-- Orders and items placed before the switch to pooled sequences took identity ids, so the
+-- sequences must start past them. The pooled optimizer hands out the 50 ids ending at the
+-- value it fetches, hence MAX(id) + 51. Sequences already further along are left alone.
+
+UPDATE order_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM orders));
+
+UPDATE order_item_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM order_items));
@@ -0,0 +1,11 @@
+-- The payment retry job looks up PENDING Stripe orders without a payment id, oldest
+-- first, every minute. Equality columns lead so the range on created_at is the last step.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'orders'
+                 AND index_name = 'idx_orders_payment_retry') = 0,
+              'CREATE INDEX idx_orders_payment_retry ON orders (status, payment_method, payment_id, created_at)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
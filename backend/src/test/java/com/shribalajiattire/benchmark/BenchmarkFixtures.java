@@ -0,0 +1,119 @@
+package com.shribalajiattire.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shribalajiattire.model.Order;
+import com.shribalajiattire.model.OrderItem;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.model.ProductImage;
+import com.shribalajiattire.model.ShippingAddress;
+import com.shribalajiattire.model.User;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entities shaped like the production catalog: several sizes and colors, a handful of
+ * images stored out of display order with srcsets, and multi-line orders.
+ */
+final class BenchmarkFixtures {
+    
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL", "XXL"};
+    private static final String[] COLORS = {"White", "Navy Blue", "Maroon", "Olive Green", "Black"};
+    private static final String[] FABRICS = {"Cotton", "Linen", "Silk", "Rayon", "Chanderi"};
+    private static final String[] GARMENTS = {"Formal Shirt", "Kurta", "Saree", "Sherwani", "Dupatta"};
+    private static final int IMAGES_PER_PRODUCT = 5;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 14, 11, 30);
+    
+    private BenchmarkFixtures() {
+    }
+    
+    /**
+     * An object mapper configured the way Spring Boot configures the application's one.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+    
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+    
+    static Product product(int i) {
+        String name = FABRICS[i % FABRICS.length] + " " + GARMENTS[i % GARMENTS.length] + " " + (i + 1);
+        Product product = Product.builder()
+                .id((long) i + 1)
+                .name(name)
+                .slug(name.toLowerCase().replace(' ', '-'))
+                .sku(String.format("SBA-%05d", i + 1))
+                .description("Handcrafted " + name.toLowerCase() + " with a relaxed fit, finished seams and "
+                        + "natural dyes. Dry clean recommended for the first wash.")
+                .priceCents(89900L + (i % 40) * 10000L)
+                .sizes(new ArrayList<>(List.of(SIZES).subList(i % 2, SIZES.length)))
+                .colors(new ArrayList<>(List.of(COLORS).subList(0, 2 + i % 3)))
+                .stock(i % 50)
+                .createdAt(CREATED.plusMinutes(i))
+                .updatedAt(CREATED.plusMinutes(i).plusDays(2))
+                .build();
+        for (int image = IMAGES_PER_PRODUCT - 1; image >= 0; image--) {
+            String url = "/api/uploads/" + Integer.toHexString(i * 31 + image) + "-7f1d2b6a8c40.jpg";
+            product.addImage(ProductImage.builder()
+                    .url(url)
+                    .srcset(url + "?w=320 320w, " + url + "?w=640 640w, " + url + "?w=1024 1024w")
+                    .altText(name)
+                    .displayOrder(image)
+                    .build());
+        }
+        return product;
+    }
+    
+    static Order order(List<Product> products, int lines) {
+        User user = User.builder()
+                .id(42L)
+                .name("Priya Sharma")
+                .email("priya.sharma@example.com")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .build();
+        Order order = Order.builder()
+                .id(1001L)
+                .user(user)
+                .shippingAddress(ShippingAddress.builder()
+                        .fullName("Priya Sharma")
+                        .addressLine1("14 MG Road")
+                        .addressLine2("Near City Mall")
+                        .city("Bengaluru")
+                        .state("Karnataka")
+                        .postalCode("560001")
+                        .country("India")
+                        .phone("+91 98450 12345")
+                        .build())
+                .status(Order.OrderStatus.PAID)
+                .paymentId("pi_3OqZ1b2eZvKYlo2C0x9hK1aB")
+                .paymentMethod("card")
+                .createdAt(CREATED)
+                .updatedAt(CREATED.plusMinutes(5))
+                .build();
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(i % products.size());
+            int quantity = 1 + i % 3;
+            order.addItem(OrderItem.builder()
+                    .id((long) i + 1)
+                    .product(product)
+                    .quantity(quantity)
+                    .unitPriceCents(product.getPriceCents())
+                    .size(product.getSizes().get(0))
+                    .color(product.getColors().get(0))
+                    .build());
+            total += quantity * product.getPriceCents();
+        }
+        order.setTotalCents(total);
+        return order;
+    }
+}
@@ -0,0 +1,35 @@
+package com.shribalajiattire.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks in this package with JMH's GC profiler, so every result is
+ * reported with its allocation rate ({@code gc.alloc.rate.norm} is bytes per operation)
+ * next to throughput or latency. After {@code mvn test-compile}, run this class's
+ * {@code main}; it accepts the usual JMH command line, such as a benchmark regex like
+ * {@code DtoMapping} or {@code -wi 1 -i 3} for a quick pass, and runs every benchmark
+ * when no pattern is given. The benchmark classes have no {@code main} of their own.
+ * Results are also written to {@code target/jmh-result.json} for comparing runs.
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json");
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.shribalajiattire.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shribalajiattire.dto.OrderDTO;
+import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.ProductJson;
+import com.shribalajiattire.model.Order;
+import com.shribalajiattire.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and the JSON encoding of a listing page. {@code productPageJson}
+ * is what an uncached listing request pays for serialization; {@code productCardPageJson}
+ * is the same page built from pre-serialized cards.
+ *
+ * <p>Run through {@link BenchmarkRunner} with the include pattern {@code DtoMapping}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+    
+    private static final int PAGE_SIZE = 12;
+    private static final int CATALOG_SIZE = 480;
+    
+    private ObjectMapper objectMapper;
+    private Product product;
+    private Order order;
+    private Page<ProductDTO> productPage;
+    private Page<ProductJson> cardPage;
+    
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        List<Product> products = BenchmarkFixtures.products(PAGE_SIZE);
+        product = products.get(0);
+        order = BenchmarkFixtures.order(products, 4);
+        
+        PageRequest pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+        productPage = new PageImpl<>(products.stream().map(ProductDTO::fromProduct).toList(), pageable, CATALOG_SIZE);
+        List<ProductJson> cards = new ArrayList<>();
+        for (ProductDTO dto : productPage) {
+            cards.add(new ProductJson(objectMapper.writeValueAsString(dto)));
+        }
+        cardPage = new PageImpl<>(cards, pageable, CATALOG_SIZE);
+    }
+    
+    @Benchmark
+    public ProductDTO productDto() {
+        return ProductDTO.fromProduct(product);
+    }
+    
+    @Benchmark
+    public OrderDTO orderDto() {
+        return OrderDTO.fromOrder(order);
+    }
+    
+    @Benchmark
+    public byte[] productPageJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+    
+    @Benchmark
+    public byte[] productCardPageJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cardPage);
+    }
+}
@@ -0,0 +1,103 @@
+package com.shribalajiattire.benchmark;
+
+import com.shribalajiattire.model.User;
+import com.shribalajiattire.security.JwtTokenProvider;
+import com.shribalajiattire.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT verification cost. {@code rebuildKeyAndParser} reproduces the old
+ * provider, which derived the key and built a parser for every token;
+ * {@code reusedParser} verifies a fresh token each time with the cached parser; and
+ * {@code verifiedTokenCache} is the steady state for a returning client.
+ * {@code signToken} is the cost of issuing a token at login.
+ *
+ * <p>Run through {@link BenchmarkRunner} with the include pattern {@code JwtVerification}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-256";
+    private static final int DISTINCT_TOKENS = 1024;
+    
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String[] tokens;
+    private Authentication authentication;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        cachingProvider = provider(DISTINCT_TOKENS);
+        uncachedProvider = provider(0);
+        
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            User user = User.builder()
+                    .id((long) i + 1)
+                    .name("Customer " + i)
+                    .email("customer" + i + "@test.com")
+                    .password("hash")
+                    .role(User.Role.CUSTOMER)
+                    .build();
+            UserPrincipal principal = UserPrincipal.create(user);
+            authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            tokens[i] = cachingProvider.generateToken(authentication);
+        }
+        for (String token : tokens) {
+            cachingProvider.parseClaims(token);
+        }
+    }
+    
+    @Benchmark
+    public Claims rebuildKeyAndParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(nextToken())
+                .getPayload();
+    }
+    
+    @Benchmark
+    public Claims reusedParser() {
+        return uncachedProvider.parseClaims(nextToken());
+    }
+    
+    @Benchmark
+    public Claims verifiedTokenCache() {
+        return cachingProvider.parseClaims(nextToken());
+    }
+    
+    @Benchmark
+    public String signToken() {
+        return uncachedProvider.generateToken(authentication);
+    }
+    
+    private String nextToken() {
+        next = (next + 1) & (DISTINCT_TOKENS - 1);
+        return tokens[next];
+    }
+    
+    private static JwtTokenProvider provider(long verifiedCacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
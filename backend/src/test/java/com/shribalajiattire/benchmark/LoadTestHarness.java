@@ -0,0 +1,489 @@
+package com.shribalajiattire.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shribalajiattire.EcommerceApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load against the whole application with a browse, search and checkout traffic mix.
+ * By default it is open-loop: requests are started at a fixed arrival rate whether or
+ * not earlier ones have finished, and each latency is measured from the request's
+ * scheduled start, so a stalled server shows up as queueing delay instead of fewer
+ * samples.
+ * <p>
+ * With {@code --clients} it runs closed-loop instead: that many clients each send their
+ * next request as soon as the previous one returns. Throughput then levels off once the
+ * server runs out of workers or database connections, which is what comparing request
+ * execution modes needs. Start the server once per mode and point the harness at it:
+ *
+ * <pre>
+ * VIRTUAL_THREADS=false TOMCAT_MAX_THREADS=50 SPRING_PROFILE=h2 mvn spring-boot:run
+ * VIRTUAL_THREADS=true SPRING_PROFILE=h2 mvn spring-boot:run    # Java 21 runtime
+ * </pre>
+ * <p>
+ * Without {@code --url} the application is started in-process on the {@code h2} profile.
+ * Either way the harness imports its own high-stock catalog and registers customers
+ * before measuring. After {@code mvn test-compile}, run this class's {@code main} with
+ * any of:
+ *
+ * <pre>
+ * --url=http://localhost:8080   target a running server instead of starting one
+ * --rate=200                    requests started per second
+ * --clients=400                 closed-loop clients instead of a fixed rate
+ * --duration=60 --warmup=10     measured and unrecorded seconds
+ * --mix=browse=40,search=20,slug=25,login=2,checkout=8,admin-orders=5
+ * --products=200 --customers=20 fixture sizes
+ * --save=target/loadtest.csv    write this run's percentiles as a baseline
+ * --baseline=target/loadtest.csv compare this run against a saved baseline
+ * </pre>
+ */
+public class LoadTestHarness {
+    
+    private static final String DEFAULT_MIX = "browse=40,search=20,slug=25,login=2,checkout=8,admin-orders=5";
+    private static final String ADMIN_EMAIL = "admin@shribalajiattire.com";
+    private static final String ADMIN_PASSWORD = "admin123";
+    private static final String CUSTOMER_PASSWORD = "loadtest123";
+    private static final String[] FABRICS = {"Cotton", "Linen", "Silk", "Rayon", "Chanderi", "Khadi"};
+    private static final String[] GARMENTS = {"Shirt", "Kurta", "Saree", "Sherwani", "Dupatta", "Lehenga"};
+    private static final String[] SORTS = {"", "&sort=price-asc", "&sort=price-desc", "&sort=name-asc"};
+    private static final int MAX_IN_FLIGHT = 5000;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(4))
+            .build();
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final List<Product> products = new ArrayList<>();
+    private final List<String> customerEmails = new ArrayList<>();
+    private final List<String> customerTokens = new ArrayList<>();
+    private String adminToken;
+    
+    private LoadTestHarness(Map<String, String> options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+    
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("url");
+        if (baseUrl == null) {
+            // Command line arguments, so they win over the h2 profile's SQL logging
+            context = new SpringApplicationBuilder(EcommerceApplication.class)
+                    .profiles("h2")
+                    .run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                            "--spring.h2.console.enabled=false");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+    
+        try {
+            new LoadTestHarness(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+    
+    private void run() throws Exception {
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        Mix mix = Mix.parse(options.getOrDefault("mix", DEFAULT_MIX));
+    
+        System.out.printf("Preparing fixtures against %s%n", baseUrl);
+        prepare(Integer.parseInt(options.getOrDefault("products", "200")),
+                Integer.parseInt(options.getOrDefault("customers", "20")));
+    
+        Map<String, EndpointStats> stats;
+        if (options.containsKey("clients")) {
+            int clients = Integer.parseInt(options.get("clients"));
+            System.out.printf("Running %d closed-loop clients for %ds after %ds warmup, mix %s%n",
+                    clients, duration.toSeconds(), warmup.toSeconds(), mix);
+            stats = driveClosedLoop(mix, clients, warmup, duration);
+        } else {
+            System.out.printf("Running %d req/s for %ds after %ds warmup, mix %s%n",
+                    rate, duration.toSeconds(), warmup.toSeconds(), mix);
+            stats = drive(mix, rate, warmup, duration);
+        }
+    
+        report(stats, duration);
+        if (options.containsKey("baseline")) {
+            compare(stats, Path.of(options.get("baseline")));
+        }
+        if (options.containsKey("save")) {
+            save(stats, Path.of(options.get("save")));
+        }
+    }
+    
+    /**
+     * Imports a catalog with effectively unlimited stock, so checkouts keep succeeding for
+     * the whole run, and registers the customers that place orders.
+     */
+    private void prepare(int productCount, int customerCount) throws Exception {
+        adminToken = login(ADMIN_EMAIL, ADMIN_PASSWORD);
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+    
+        StringBuilder csv = new StringBuilder("sku,name,description,price,sizes,colors,stock\n");
+        Random random = new Random(42);
+        for (int i = 0; i < productCount; i++) {
+            String name = FABRICS[i % FABRICS.length] + " " + GARMENTS[(i / FABRICS.length) % GARMENTS.length]
+                    + " " + runId + " " + i;
+            csv.append("LT-").append(runId).append('-').append(i).append(',')
+                    .append(name).append(',')
+                    .append("Load test product ").append(i).append(',')
+                    .append(499 + random.nextInt(5000)).append(',')
+                    .append("S|M|L|XL").append(',')
+                    .append("White|Navy|Maroon").append(',')
+                    .append(1_000_000_000).append('\n');
+        }
+        HttpResponse<String> imported = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/admin/products/import"))
+                .header("Authorization", "Bearer " + adminToken)
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        expectOk(imported, "catalog import");
+    
+        for (int page = 0; ; page++) {
+            JsonNode body = getJson("/api/products?size=100&q=" + runId + "&page=" + page);
+            for (JsonNode product : body.get("content")) {
+                products.add(new Product(product.get("id").asLong(), product.get("slug").asText(),
+                        product.get("sizes").get(0).asText(), product.get("colors").get(0).asText()));
+            }
+            if (body.get("last").asBoolean()) {
+                break;
+            }
+        }
+        if (products.isEmpty()) {
+            throw new IllegalStateException("No imported products are visible in the catalog");
+        }
+    
+        for (int i = 0; i < customerCount; i++) {
+            String email = "loadtest-" + runId + "-" + i + "@example.com";
+            HttpResponse<String> registered = post("/api/auth/register", null, Map.of(
+                    "name", "Load Test " + i, "email", email, "password", CUSTOMER_PASSWORD));
+            expectOk(registered, "registration");
+            customerEmails.add(email);
+            customerTokens.add(objectMapper.readTree(registered.body()).get("token").asText());
+        }
+        System.out.printf("Imported %d products and registered %d customers%n", products.size(), customerCount);
+    }
+    
+    private Map<String, EndpointStats> drive(Mix mix, int rate, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        SplittableRandom random = new SplittableRandom(7);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+    
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+    
+            String endpoint = mix.pick(random);
+            EndpointStats endpointStats = scheduled >= measureFrom
+                    ? stats.computeIfAbsent(endpoint, name -> new EndpointStats())
+                    : null;
+            if (!inFlight.tryAcquire()) {
+                // The client cannot keep up: count it against the server rather than slowing the schedule
+                if (endpointStats != null) {
+                    endpointStats.record(-1, System.nanoTime() - scheduled);
+                }
+                continue;
+            }
+            client.sendAsync(request(endpoint, random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (endpointStats != null) {
+                            endpointStats.record(error != null ? -1 : response.statusCode(), System.nanoTime() - scheduled);
+                        }
+                    });
+        }
+    
+        if (!inFlight.tryAcquire(MAX_IN_FLIGHT, 60, TimeUnit.SECONDS)) {
+            System.out.printf("%d requests still in flight after 60s; they are not counted%n",
+                    MAX_IN_FLIGHT - inFlight.availablePermits());
+        }
+        return stats;
+    }
+    
+    /**
+     * Each client sends back to back, and latency is measured from the actual send, so a
+     * saturated server shows up as flat throughput rather than queueing delay.
+     */
+    private Map<String, EndpointStats> driveClosedLoop(Mix mix, int clients, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+    
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            SplittableRandom random = new SplittableRandom(7 + c);
+            pool.execute(() -> {
+                while (System.nanoTime() < end) {
+                    String endpoint = mix.pick(random);
+                    HttpRequest request = request(endpoint, random);
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (start >= measureFrom) {
+                        stats.computeIfAbsent(endpoint, name -> new EndpointStats())
+                                .record(status, System.nanoTime() - start);
+                    }
+                }
+            });
+        }
+    
+        pool.shutdown();
+        if (!pool.awaitTermination(end - System.nanoTime() + TimeUnit.SECONDS.toNanos(60), TimeUnit.NANOSECONDS)) {
+            System.out.println("Clients still busy 60s after the run; their requests are not counted");
+            pool.shutdownNow();
+        }
+        return stats;
+    }
+    
+    private HttpRequest request(String endpoint, SplittableRandom random) {
+        Product product = products.get(zipf(random, products.size()));
+        int customer = random.nextInt(customerTokens.size());
+        return switch (endpoint) {
+            case "browse" -> get("/api/products?size=12&page=" + zipf(random, 5) + SORTS[random.nextInt(SORTS.length)],
+                    null);
+            case "search" -> get("/api/products?size=12&q=" + FABRICS[random.nextInt(FABRICS.length)] + "+"
+                    + GARMENTS[random.nextInt(GARMENTS.length)], null);
+            case "slug" -> get("/api/products/slug/" + product.slug(), null);
+            case "login" -> postRequest("/api/auth/login", null,
+                    Map.of("email", customerEmails.get(customer), "password", CUSTOMER_PASSWORD));
+            case "checkout" -> postRequest("/api/checkout", customerTokens.get(customer), Map.of(
+                    "cartItems", List.of(Map.of("productId", product.id(), "quantity", 1 + random.nextInt(2),
+                            "size", product.size(), "color", product.color())),
+                    "shipping", Map.of("fullName", "Load Test", "addressLine1", "14 MG Road", "city", "Bengaluru",
+                            "state", "Karnataka", "postalCode", "560001", "country", "India",
+                            "phone", "+91 98450 12345")));
+            case "admin-orders" -> get("/api/admin/orders?size=20&page=" + zipf(random, 10), adminToken);
+            default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        };
+    }
+    
+    private void report(Map<String, EndpointStats> stats, Duration duration) {
+        System.out.printf("%n%-14s %9s %8s %7s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "req/s", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            Histogram histogram = endpoint.latencies;
+            long count = histogram.getTotalCount();
+            System.out.printf("%-14s %9.1f %8d %6.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    entry.getKey(), count / (double) duration.toSeconds(), count,
+                    100.0 * endpoint.errors.sum() / Math.max(count, 1),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0, endpoint.statuses);
+        }
+    }
+    
+    private static void save(Map<String, EndpointStats> stats, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("endpoint,count,errors,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+                Histogram histogram = entry.getValue().latencies;
+                writer.printf(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", entry.getKey(),
+                        histogram.getTotalCount(), entry.getValue().errors.sum(),
+                        millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                        histogram.getMaxValue() / 1000.0);
+            }
+        }
+        System.out.printf("Saved baseline to %s%n", path);
+    }
+    
+    private static void compare(Map<String, EndpointStats> stats, Path path) throws IOException {
+        System.out.printf("%nAgainst baseline %s (current / baseline, change)%n", path);
+        System.out.printf("%-14s %22s %22s %22s %16s%n", "endpoint", "p50 ms", "p99 ms", "p99.9 ms", "error rate");
+        List<String> lines = Files.readAllLines(path);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            EndpointStats current = stats.get(fields[0]);
+            if (current == null) {
+                continue;
+            }
+            Histogram histogram = current.latencies;
+            double baselineErrors = 100.0 * Long.parseLong(fields[2]) / Math.max(Long.parseLong(fields[1]), 1);
+            double currentErrors = 100.0 * current.errors.sum() / Math.max(histogram.getTotalCount(), 1);
+            System.out.printf("%-14s %22s %22s %22s %7.2f%% / %.2f%%%n", fields[0],
+                    change(millis(histogram, 50), Double.parseDouble(fields[3])),
+                    change(millis(histogram, 99), Double.parseDouble(fields[5])),
+                    change(millis(histogram, 99.9), Double.parseDouble(fields[6])),
+                    currentErrors, baselineErrors);
+        }
+    }
+    
+    private static String change(double current, double baseline) {
+        return String.format("%.1f / %.1f %+.0f%%", current, baseline,
+                baseline == 0 ? 0 : 100 * (current - baseline) / baseline);
+    }
+    
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    /**
+     * Skewed index in {@code [0, n)}: a few popular items take most of the traffic,
+     * roughly following Zipf's law with exponent 1.
+     */
+    private static int zipf(SplittableRandom random, int n) {
+        return (int) Math.min(n - 1, Math.floor(Math.exp(random.nextDouble() * Math.log(n + 1)) - 1));
+    }
+    
+    private String login(String email, String password) throws Exception {
+        HttpResponse<String> response = post("/api/auth/login", null, Map.of("email", email, "password", password));
+        expectOk(response, "login as " + email);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+    
+    private JsonNode getJson(String path) throws Exception {
+        HttpResponse<String> response = client.send(get(path, null), HttpResponse.BodyHandlers.ofString());
+        expectOk(response, "GET " + path);
+        return objectMapper.readTree(response.body());
+    }
+    
+    private HttpResponse<String> post(String path, String token, Object body) throws Exception {
+        return client.send(postRequest(path, token, body), HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+    
+    private HttpRequest postRequest(String path, String token, Object body) {
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+    
+    private static void expectOk(HttpResponse<String> response, String action) {
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(action + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+    
+    private record Product(long id, String slug, String size, String color) {
+    }
+    
+    private static final class EndpointStats {
+    
+        // Microseconds, resized as needed so a stalled server cannot overflow it
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    
+        void record(int status, long latencyNanos) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+        }
+    }
+    
+    private record Mix(Map<String, Integer> weights, int total) {
+    
+        static Mix parse(String spec) {
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            for (String entry : spec.split(",")) {
+                String[] pair = entry.trim().split("=");
+                int weight = Integer.parseInt(pair[1]);
+                if (weight > 0) {
+                    weights.put(pair[0], weight);
+                }
+            }
+            return new Mix(weights, weights.values().stream().mapToInt(Integer::intValue).sum());
+        }
+    
+        String pick(SplittableRandom random) {
+            int roll = random.nextInt(total);
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty traffic mix");
+        }
+    
+        @Override
+        public String toString() {
+            return weights.toString();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.shribalajiattire.benchmark;
+
+import com.shribalajiattire.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The string work {@link ProductService} does on every listing request and product
+ * write. Both helpers are internal to the service, so they are reached through method
+ * handles held in constants, which the JIT inlines like direct calls.
+ *
+ * <p>Run through {@link BenchmarkRunner} with the include pattern {@code ProductService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductServiceBenchmark {
+    
+    private static final MethodHandle GENERATE_SLUG;
+    private static final MethodHandle GET_SORT_ORDER;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(ProductService.class, MethodHandles.lookup());
+            GENERATE_SLUG = lookup.findStatic(ProductService.class, "generateSlug",
+                    MethodType.methodType(String.class, String.class));
+            GET_SORT_ORDER = lookup.findVirtual(ProductService.class, "getSortOrder",
+                    MethodType.methodType(Sort.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private static final String[] NAMES = {
+            "Classic White Formal Shirt",
+            "Banarasi  Silk Saree -- Maroon & Gold",
+            "Men's Cotton Kurta (Festive Edition)",
+            "Chanderi Dupatta with Zari Border, 2.5m"
+    };
+    private static final String[] SORTS = {null, "price-asc", "price-desc", "name-asc", "newest"};
+    
+    private ProductService productService;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        productService = new ProductService(null, null, null, null, null, null, null, null);
+    }
+    
+    @Benchmark
+    public String generateSlug() throws Throwable {
+        next++;
+        return (String) GENERATE_SLUG.invokeExact(NAMES[next & (NAMES.length - 1)]);
+    }
+    
+    @Benchmark
+    public Sort getSortOrder() throws Throwable {
+        next++;
+        return (Sort) GET_SORT_ORDER.invokeExact(productService, SORTS[next % SORTS.length]);
+    }
+}
@@ -0,0 +1,88 @@
+package com.shribalajiattire.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+    
+    @Test
+    void getConnection_ShouldFailFast_WhenAllPermitsAreHeld() throws SQLException {
+        DataSource pool = mock(DataSource.class);
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(pool, 2, Duration.ofMillis(50));
+        
+        Connection first = limiter.getConnection();
+        Connection second = limiter.getConnection();
+        assertEquals(0, limiter.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, limiter::getConnection);
+        verify(pool, times(2)).getConnection();
+        
+        first.close();
+        first.close();
+        assertEquals(1, limiter.getAvailablePermits());
+        verify(pooled, times(2)).close();
+        
+        Connection third = limiter.getConnection();
+        assertEquals(0, limiter.getAvailablePermits());
+        second.close();
+        third.close();
+        assertEquals(2, limiter.getAvailablePermits());
+    }
+    
+    @Test
+    void getConnection_ShouldReleasePermit_WhenPoolFails() throws SQLException {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+        
+        assertThrows(SQLException.class, limiter::getConnection);
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+    
+    @Test
+    void connection_ShouldUnwrapToPooledConnection() throws SQLException {
+        DataSource pool = mock(DataSource.class);
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        when(pooled.isWrapperFor(Runnable.class)).thenReturn(true);
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+        
+        try (Connection connection = limiter.getConnection()) {
+            assertSame(connection, connection.unwrap(Connection.class));
+            assertTrue(connection.isWrapperFor(Runnable.class));
+            assertNotEquals(connection, pooled);
+        }
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+    
+    @Test
+    void postProcessor_ShouldSizeEachLimiterFromItsOwnPool() {
+        BeanPostProcessor postProcessor = DataSourceConfig.connectionLimitingPostProcessor(new MockEnvironment()
+                .withProperty("app.datasource.limiter.max-connections", "10")
+                .withProperty("app.datasource.limiter.acquire-timeout", "50ms"));
+        HikariDataSource primary = new HikariDataSource();
+        primary.setMaximumPoolSize(20);
+        HikariDataSource replica = new HikariDataSource();
+        replica.setMaximumPoolSize(5);
+        
+        Object limitedPrimary = postProcessor.postProcessAfterInitialization(primary, "primaryDataSource");
+        Object limitedReplica = postProcessor.postProcessAfterInitialization(replica, "replicaDataSource");
+        Object limitedOther = postProcessor.postProcessAfterInitialization(mock(DataSource.class), "other");
+        
+        assertEquals(20, ((ConnectionLimitingDataSource) limitedPrimary).getAvailablePermits());
+        assertEquals(5, ((ConnectionLimitingDataSource) limitedReplica).getAvailablePermits());
+        assertEquals(10, ((ConnectionLimitingDataSource) limitedOther).getAvailablePermits());
+    }
+}
@@ -0,0 +1,158 @@
+package com.shribalajiattire.config;
+
+import com.shribalajiattire.service.OrderService;
+import com.shribalajiattire.service.PaymentIntentDispatcher;
+import com.shribalajiattire.service.ProductService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the application against two in-memory H2 databases, the second standing in for a
+ * replica. The replica's lag is read from a table the test controls, so both routing to
+ * the replica and falling back to the primary can be forced.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw-primary",
+        "spring.jpa.show-sql=false",
+        "app.upload.dir=${java.io.tmpdir}/sba-test-uploads",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "app.datasource.replica.max-lag=1s",
+        "app.datasource.replica.lag-check-interval=50ms",
+        "app.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag"
+})
+@ActiveProfiles("h2")
+class ReadWriteRoutingTest {
+    
+    static final String REPLICA_URL = "jdbc:h2:mem:rw-replica;DB_CLOSE_DELAY=-1";
+    
+    private static JdbcTemplate replica;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @MockBean
+    private PaymentIntentDispatcher paymentIntentDispatcher;
+    
+    @BeforeAll
+    static void migrateReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds INT)");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+    }
+    
+    @BeforeEach
+    void replicaCaughtUp() {
+        replica.update("UPDATE replica_lag SET lag_seconds = 0");
+    }
+    
+    @Test
+    void readOnlyTransactions_ShouldUseReplica_UntilItLagsBehind() {
+        insertReplicaOnlyProduct("replica-only-saree");
+        Long customerId = insertReplicaOnlyOrder();
+        awaitTrue(lagMonitor::isReplicaUsable);
+    
+        assertEquals(1, orderService.getUserOrders(customerId, 0, 10).getTotalElements());
+        assertEquals(1, countOnReadOnly("replica-only-saree"));
+        assertEquals(0, countOnReadWrite("replica-only-saree"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE slug = 'replica-only-saree'", Integer.class));
+    
+        replica.update("UPDATE replica_lag SET lag_seconds = 5");
+        awaitTrue(() -> !lagMonitor.isReplicaUsable());
+    
+        insertReplicaOnlyProduct("lagging-replica-saree");
+        assertEquals(0, countOnReadOnly("lagging-replica-saree"));
+        assertEquals(0, orderService.getUserOrders(customerId, 0, 10).getTotalElements());
+    
+        replica.update("UPDATE replica_lag SET lag_seconds = 0");
+        awaitTrue(lagMonitor::isReplicaUsable);
+        assertEquals(1, countOnReadOnly("lagging-replica-saree"));
+    }
+    
+    @Test
+    void cacheFillingCatalogReads_ShouldStayOnPrimary_WhileReplicaIsUsable() {
+        insertReplicaOnlyProduct("replica-only-kurta");
+        awaitTrue(lagMonitor::isReplicaUsable);
+    
+        assertEquals(1, countOnReadOnly("replica-only-kurta"));
+        assertThrows(RuntimeException.class, () -> productService.getProductBySlug("replica-only-kurta"));
+        assertTrue(productService.getProductCards("replica-only-kurta", null, null, null, null, null, 0, 12)
+                .isEmpty());
+    }
+    
+    private void insertReplicaOnlyProduct(String slug) {
+        replica.update("INSERT INTO products (name, slug, sku, price_cents, currency, stock, active, created_at) " +
+                "VALUES (?, ?, ?, 150000, 'INR', 5, TRUE, CURRENT_TIMESTAMP)", slug, slug, slug.toUpperCase());
+    }
+    
+    private Long insertReplicaOnlyOrder() {
+        replica.update("INSERT INTO users (name, email, password, role, created_at) " +
+                "VALUES ('Replica Customer', 'replica@test.com', 'hash', 'CUSTOMER', CURRENT_TIMESTAMP)");
+        Long customerId = replica.queryForObject("SELECT id FROM users WHERE email = 'replica@test.com'", Long.class);
+        replica.update("INSERT INTO orders (id, user_id, total_cents, currency, full_name, city, status, created_at) " +
+                "VALUES (1, ?, 150000, 'INR', 'Replica Customer', 'Jaipur', 'DELIVERED', CURRENT_TIMESTAMP)",
+                customerId);
+        return customerId;
+    }
+    
+    private int countOnReadOnly(String slug) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> count(slug));
+    }
+    
+    private int countOnReadWrite(String slug) {
+        return new TransactionTemplate(transactionManager).execute(status -> count(slug));
+    }
+    
+    private int count(String slug) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE slug = ?", Integer.class, slug);
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.shribalajiattire.config;
+
+import com.shribalajiattire.dto.CartItemDTO;
+import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.OrderDTO;
+import com.shribalajiattire.dto.SalesReportDTO;
+import com.shribalajiattire.dto.ShippingAddressDTO;
+import com.shribalajiattire.model.SalesRollup;
+import com.shribalajiattire.model.User;
+import com.shribalajiattire.repository.UserRepository;
+import com.shribalajiattire.service.OrderService;
+import com.shribalajiattire.service.PaymentIntentDispatcher;
+import com.shribalajiattire.service.SalesRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datagen",
+        "spring.jpa.show-sql=false",
+        "app.upload.dir=${java.io.tmpdir}/sba-test-uploads",
+        "app.datagen.enabled=true",
+        "app.datagen.products=60",
+        "app.datagen.users=40",
+        "app.datagen.orders=1500",
+        "app.datagen.history-days=90",
+        "app.datagen.batch-size=128"
+})
+@ActiveProfiles("h2")
+class SyntheticDataGeneratorTest {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @MockBean
+    private PaymentIntentDispatcher paymentIntentDispatcher;
+    
+    @Test
+    void generate_ShouldLoadConsistentSkewedHistory_AlongsideDefaultData() {
+        assertEquals(60, count("SELECT COUNT(*) FROM products WHERE sku LIKE 'GEN-%'"));
+        assertEquals(40, count("SELECT COUNT(*) FROM users WHERE email LIKE 'datagen-%'"));
+        assertTrue(userRepository.findByEmail("admin@shribalajiattire.com").isPresent());
+        assertEquals(1500, count("SELECT COUNT(*) FROM orders"));
+        assertTrue(count("SELECT COUNT(*) FROM product_images") >= 60);
+        assertEquals(0, count("SELECT COUNT(*) FROM orders o WHERE total_cents <> " +
+                "(SELECT SUM(quantity * unit_price_cents) FROM order_items i WHERE i.order_id = o.id)"));
+    
+        long units = count("SELECT SUM(quantity) FROM order_items");
+        long topUnits = count("SELECT SUM(units) FROM (SELECT SUM(quantity) AS units FROM order_items " +
+                "GROUP BY product_id ORDER BY units DESC LIMIT 6) top_products");
+        assertTrue(topUnits > units * 0.4, "top 10% of products sold " + topUnits + " of " + units + " units");
+    
+        LocalDate today = LocalDate.now();
+        SalesReportDTO report = salesRollupService.getReport(today.minusDays(89), today, SalesRollup.Granularity.DAY, 0);
+        assertEquals(1500, report.getOrderCount());
+        assertEquals(count("SELECT SUM(total_cents) FROM orders WHERE status IN ('PAID', 'PROCESSING', 'SHIPPED', " +
+                "'DELIVERED')"), report.getRevenueCents());
+    
+        // Orders placed through JPA draw ids from the same sequence without colliding
+        User customer = userRepository.findByEmail("customer@test.com").orElseThrow();
+        Long productId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM products WHERE sku LIKE 'GEN-%' AND active = TRUE AND stock > 0", Long.class);
+        OrderDTO order = orderService.createOrder(customer.getId(), checkout(productId));
+        assertEquals(1501, count("SELECT COUNT(*) FROM orders"));
+        assertEquals(1, count("SELECT COUNT(*) FROM order_items WHERE order_id = " + order.getId()));
+    }
+    
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+    
+    private static CheckoutRequest checkout(Long productId) {
+        CartItemDTO item = new CartItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+    
+        ShippingAddressDTO shipping = new ShippingAddressDTO();
+        shipping.setFullName("Test Customer");
+        shipping.setAddressLine1("1 Test Street");
+        shipping.setCity("Jaipur");
+        shipping.setState("Rajasthan");
+        shipping.setPostalCode("302001");
+        shipping.setCountry("India");
+        shipping.setPhone("9999999999");
+    
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCartItems(List.of(item));
+        request.setShipping(shipping);
+        request.setPaymentMethod("mock");
+        return request;
+    }
+}
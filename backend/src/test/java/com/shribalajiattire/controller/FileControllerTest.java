@@ -0,0 +1,119 @@
+package com.shribalajiattire.controller;
+
+import com.shribalajiattire.repository.ProductImageRepository;
+import com.shribalajiattire.service.FileStorageService;
+import com.shribalajiattire.service.ImageDerivativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class FileControllerTest {
+    
+    private static final String FILENAME = "3f2a9c1e-0b7d-4c1a-9e55-7f1d2b6a8c40.png";
+    
+    @TempDir
+    Path uploadDir;
+    
+    private FileStorageService fileStorageService;
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.write(uploadDir.resolve(FILENAME), "0123456789".getBytes());
+        // Outside Spring the @Async generator runs inline, so derivatives exist once storeFile returns
+        fileStorageService = new FileStorageService(uploadDir.toString(),
+                new ImageDerivativeService(List.of(320, 640)), mock(ProductImageRepository.class), Runnable::run);
+        ReflectionTestUtils.setField(fileStorageService, "baseUrl", "/api/uploads");
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileController(fileStorageService)).build();
+    }
+    
+    @Test
+    void getFile_ShouldSendContentTypeValidatorsAndImmutableCaching() throws Exception {
+        mockMvc.perform(get("/api/uploads/" + FILENAME))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(content().string("0123456789"));
+    }
+    
+    @Test
+    void getFile_ShouldAnswerNotModified_WhenEtagMatches() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/uploads/" + FILENAME)).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        
+        MvcResult second = mockMvc.perform(get("/api/uploads/" + FILENAME).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(0, second.getResponse().getContentLength());
+    }
+    
+    @Test
+    void getFile_ShouldServeByteRange() throws Exception {
+        mockMvc.perform(get("/api/uploads/" + FILENAME).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+    
+    @Test
+    void getFile_ShouldServeSmallestDerivativeCoveringRequestedWidth() throws Exception {
+        String url = fileStorageService.storeFile(new MockMultipartFile(
+                "image", "kurta.png", "image/png", png(1000, 1500)));
+        String filename = url.substring(url.lastIndexOf('/') + 1);
+        
+        assertEquals(url + "?w=320 320w, " + url + "?w=640 640w", fileStorageService.srcsetFor(url));
+        assertEquals(320, widthOf(mockMvc.perform(get(url).param("w", "300"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andReturn()));
+        assertEquals(640, widthOf(mockMvc.perform(get(url).param("w", "500")).andReturn()));
+        assertEquals(1000, widthOf(mockMvc.perform(get(url).param("w", "2000")).andReturn()));
+        assertTrue(Files.exists(fileStorageService.loadFile(ImageDerivativeService.variantName(filename, 640))));
+    }
+    
+    @Test
+    void getFile_ShouldFallBackToRevalidatedOriginal_WhileDerivativesArePending() throws Exception {
+        mockMvc.perform(get("/api/uploads/" + FILENAME).param("w", "320"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().string("0123456789"));
+    }
+    
+    @Test
+    void getFile_ShouldReturnNotFound_WhenFileMissing() throws Exception {
+        mockMvc.perform(get("/api/uploads/missing.png"))
+                .andExpect(status().isNotFound());
+    }
+    
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+    
+    private static int widthOf(MvcResult result) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).getWidth();
+    }
+}
@@ -0,0 +1,212 @@
+package com.shribalajiattire.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.ProductJson;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.service.CatalogVersion;
+import com.shribalajiattire.service.ProductPayloadCache;
+import com.shribalajiattire.service.ProductService;
+import com.shribalajiattire.service.ProductStockChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ProductControllerTest {
+    
+    private ProductService productService;
+    private ProductPayloadCache payloadCache;
+    private CatalogVersion catalogVersion;
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        catalogVersion = new CatalogVersion(Duration.ofMinutes(10));
+        payloadCache = payloadCache(catalogVersion);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new ProductController(productService, payloadCache, catalogVersion, true, Duration.ZERO)).build();
+    
+        ProductDTO product = ProductDTO.builder().id(1L).slug("silk-saree").name("Silk Saree").build();
+        when(productService.getProductById(1L)).thenReturn(product);
+        when(productService.getProductBySlug("silk-saree")).thenReturn(product);
+        when(productService.getProductCards(any(), any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new PageImpl<>(List.of(new ProductJson("{\"id\":1,\"slug\":\"silk-saree\"}")),
+                        PageRequest.of(0, 12), 1));
+    }
+    
+    @Test
+    void getProductById_ShouldSendValidatorsAndRevalidationHeaders() throws Exception {
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, payloadCache.byId(1L, () -> null).etag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, must-revalidate, public"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(jsonPath("$.slug").value("silk-saree"));
+    }
+    
+    @Test
+    void getProductById_ShouldServeCachedPayload_OnRepeatedReads() throws Exception {
+        mockMvc.perform(get("/api/products/1")).andExpect(jsonPath("$.name").value("Silk Saree"));
+        mockMvc.perform(get("/api/products/1")).andExpect(jsonPath("$.name").value("Silk Saree"));
+        mockMvc.perform(get("/api/products/slug/silk-saree")).andExpect(jsonPath("$.id").value(1));
+        
+        verify(productService, times(1)).getProductById(1L);
+        verify(productService, never()).getProductBySlug(anyString());
+    }
+    
+    @Test
+    void getProducts_ShouldEmbedPreSerializedCards() throws Exception {
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].slug").value("silk-saree"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+    
+    @Test
+    void getProductById_ShouldAnswerNotModifiedWithoutLoading_WhenEtagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+                .andExpect(content().string(""));
+        verify(productService, times(1)).getProductById(1L);
+    }
+    
+    @Test
+    void getProductBySlug_ShouldReturnFreshBody_AfterProductChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/slug/silk-saree"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    
+        when(productService.getProductBySlug("silk-saree"))
+                .thenReturn(ProductDTO.builder().id(1L).slug("silk-saree").name("Silk Saree").stock(3).build());
+        ProductStockChangedEvent event = new ProductStockChangedEvent(1L, "silk-saree");
+        payloadCache.onStockChanged(event);
+        catalogVersion.onStockChanged(event);
+    
+        String next = mockMvc.perform(get("/api/products/slug/silk-saree").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(3))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, next);
+        assertEquals(payloadCache.bySlug("silk-saree", () -> null).etag(), next);
+    }
+    
+    @Test
+    void getProductById_ShouldNotCacheLoad_ThatRacedWithACommittedWrite() throws Exception {
+        // The write commits and its listeners run while the read is still building the old payload
+        when(productService.getProductById(1L)).thenAnswer(invocation -> {
+            ProductStockChangedEvent event = new ProductStockChangedEvent(1L, "silk-saree");
+            payloadCache.onStockChanged(event);
+            catalogVersion.onStockChanged(event);
+            return ProductDTO.builder().id(1L).slug("silk-saree").name("Silk Saree").stock(5).build();
+        }).thenReturn(ProductDTO.builder().id(1L).slug("silk-saree").name("Silk Saree").stock(4).build());
+    
+        String stale = mockMvc.perform(get("/api/products/1")).andExpect(jsonPath("$.stock").value(5))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, stale))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(4));
+        mockMvc.perform(get("/api/products/1")).andExpect(jsonPath("$.stock").value(4));
+        verify(productService, times(2)).getProductById(1L);
+    }
+    
+    @Test
+    void cards_ShouldNotCacheProductsWrittenSinceThePageWasQueried() {
+        Product product = Product.builder().id(7L).slug("linen-shirt").name("Linen Shirt").build();
+        long asOf = catalogVersion.catalogVersion();
+        catalogVersion.onStockChanged(new ProductStockChangedEvent(7L, "linen-shirt"));
+    
+        payloadCache.cards(List.of(product), asOf, ProductControllerTest::render);
+        List<ProductJson> again = payloadCache.cards(List.of(product), catalogVersion.catalogVersion(),
+                ProductControllerTest::render);
+        List<ProductJson> cached = payloadCache.cards(List.of(product), catalogVersion.catalogVersion(),
+                products -> fail("card should be cached"));
+    
+        assertSame(again.get(0), cached.get(0));
+    }
+    
+    @Test
+    void getProductById_ShouldKeepEtag_WhenAnotherProductChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String listing = catalogVersion.catalogETag();
+    
+        catalogVersion.onStockChanged(new ProductStockChangedEvent(2L, "cotton-kurta"));
+    
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, listing))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalogVersion.catalogETag()));
+        verify(productService, times(1)).getProductById(1L);
+    }
+    
+    @Test
+    void getProductById_ShouldSendSameEtag_FromEveryInstance() throws Exception {
+        // A second instance with its own counters and caches, which never saw this instance's writes
+        catalogVersion.onStockChanged(new ProductStockChangedEvent(1L, "silk-saree"));
+        CatalogVersion otherVersion = new CatalogVersion(Duration.ofMinutes(10));
+        MockMvc otherInstance = MockMvcBuilders.standaloneSetup(new ProductController(
+                productService, payloadCache(otherVersion), otherVersion, true, Duration.ZERO)).build();
+    
+        String etag = mockMvc.perform(get("/api/products/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    
+        otherInstance.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+    
+    @Test
+    void getProducts_ShouldHashListingBody_WhenNotSingleInstance() throws Exception {
+        MockMvc sharedCatalog = MockMvcBuilders.standaloneSetup(new ProductController(
+                        productService, payloadCache, catalogVersion, false, Duration.ZERO))
+                .addFilters(new ShallowEtagHeaderFilter())
+                .build();
+    
+        String etag = sharedCatalog.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertNotEquals(catalogVersion.catalogETag(), etag);
+    
+        sharedCatalog.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(productService, times(2)).getProductCards(any(), any(), any(), any(), any(), any(), anyInt(), anyInt());
+    }
+    
+    private static ProductPayloadCache payloadCache(CatalogVersion catalogVersion) {
+        return new ProductPayloadCache(new ObjectMapper().registerModule(new JavaTimeModule()),
+                catalogVersion, true, 200, Duration.ofMinutes(10));
+    }
+    
+    private static List<ProductDTO> render(List<Product> products) {
+        return products.stream()
+                .map(product -> ProductDTO.builder().id(product.getId()).slug(product.getSlug()).build())
+                .toList();
+    }
+    
+    @Test
+    void getProducts_ShouldAnswerNotModifiedWithoutQuerying_WhenCatalogUnchanged() throws Exception {
+        String etag = catalogVersion.catalogETag();
+    
+        mockMvc.perform(get("/api/products").param("q", "saree").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(productService);
+    }
+}
@@ -0,0 +1,193 @@
+package com.shribalajiattire.repository;
+
+import com.shribalajiattire.model.Order;
+import com.shribalajiattire.model.SalesRollup;
+import com.shribalajiattire.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Explains the SQL Hibernate issues for each request-path repository query against the
+ * migrated schema and checks that no table is read by a full scan. Queries that load a
+ * whole table into the search and facet indexes scan by design and are left out.
+ * <p>
+ * H2 does not weigh ORDER BY when choosing between indexes that share a leading column,
+ * so the user history and storefront listings are only checked for index-driven access;
+ * MySQL picks the composite whose trailing columns match the sort.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.shribalajiattire.repository.RepositoryIndexUsageTest$RecordingInspector"
+})
+@ActiveProfiles("h2")
+class RepositoryIndexUsageTest {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+    
+    @Autowired
+    private ProductSalesRollupRepository productSalesRollupRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private static final int ROWS = 500;
+    
+    private User customer;
+    
+    @BeforeEach
+    void setUp() {
+        customer = User.builder()
+                .name("Index Customer")
+                .email("index@test.com")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .build();
+        entityManager.persist(customer);
+        entityManager.flush();
+    
+        // Enough rows that the planner weighs index lookups and sorts against a scan
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> products = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            products.add(new Object[]{"Kurta " + i, "kurta-" + i, "KURTA-" + i, 1000L * i, i % 10 != 0, now});
+            orders.add(new Object[]{i, customer.getId(), 1000L * i, i % 2 == 0 ? "PAID" : "DELIVERED",
+                    Timestamp.valueOf(LocalDateTime.now().minusHours(i))});
+            items.add(new Object[]{i, i, 1000L * i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, slug, sku, price_cents, currency, stock, active, " +
+                "created_at) VALUES (?, ?, ?, ?, 'INR', 5, ?, ?)", products);
+        Long productId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM products", Long.class);
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, user_id, total_cents, currency, status, created_at) " +
+                "VALUES (?, ?, ?, 'INR', ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, product_id, quantity, unit_price_cents) " +
+                "VALUES (?, ?, " + productId + ", 1, ?)", items);
+    }
+    
+    @Test
+    void orderQueries_ShouldUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+    
+        assertUsesIndex("USER_ID = ?1",
+                () -> orderRepository.findByUserOrderByCreatedAtDescIdDesc(customer, PageRequest.of(0, 20)));
+        assertUsesIndex("IDX_ORDERS_USER_CREATED",
+                () -> orderRepository.findByUserBefore(customer, now, 100L, PageRequest.of(0, 20)));
+        assertUsesIndex("USER_ID = ?1",
+                () -> orderRepository.findByUserOrderByCreatedAtDesc(customer, PageRequest.of(0, 20)));
+        assertUsesIndex("IDX_ORDERS_CREATED_AT", () -> orderRepository.findAllBefore(now, 100L, PageRequest.of(0, 20)));
+        assertUsesIndex("IDX_ORDERS_CREATED_AT", () -> orderRepository.findFirstCreatedAt());
+        assertUsesIndex("IDX_ORDERS_CREATED_AT", () -> {
+            try (Stream<OrderRepository.OrderTotals> totals = orderRepository.streamTotals(now.minusDays(1), now)) {
+                totals.count();
+            }
+        });
+        // The status filter lets H2 pick either the created_at or the status-led retry index
+        assertUsesIndex("IDX_ORDERS_", () -> {
+            try (Stream<OrderRepository.OrderLine> lines = orderRepository.streamLines(now.minusDays(1), now,
+                    EnumSet.of(Order.OrderStatus.PAID, Order.OrderStatus.DELIVERED))) {
+                lines.count();
+            }
+        });
+        assertUsesIndex("IDX_ORDERS_PAYMENT_RETRY", () -> orderRepository.findWithoutPaymentId(
+                Order.OrderStatus.PENDING, "stripe", now.minusMinutes(2), PageRequest.of(0, 50)));
+    }
+    
+    @Test
+    void productQueries_ShouldUseIndexes() {
+        assertUsesIndex("ACTIVE = TRUE", () -> productRepository.findByActiveTrue(
+                PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "createdAt", "id"))));
+        assertUsesIndex("ACTIVE = TRUE", () -> productRepository.findByActiveTrue(
+                PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "priceCents", "id"))));
+        assertUsesIndex("ACTIVE = TRUE", () -> productRepository.findByActiveTrue(
+                PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "name", "id"))));
+        assertUsesIndex(null, () -> productRepository.findBySlug("silk-saree"));
+        assertUsesIndex(null, () -> productRepository.fetchImages(List.of(1L, 2L)));
+        assertUsesIndex(null, () -> productRepository.fetchSizes(List.of(1L, 2L)));
+        assertUsesIndex("IDX_PRODUCT_IMAGES_URL", () -> productImageRepository.countByUrl("/uploads/a.jpg"));
+    }
+    
+    @Test
+    void userAndRollupQueries_ShouldUseIndexes() {
+        LocalDate today = LocalDate.now();
+    
+        assertUsesIndex(null, () -> userRepository.findByEmail("index@test.com"));
+        assertUsesIndex(null, () -> userRepository.findRoleById(customer.getId()));
+        assertUsesIndex("UK_SALES_ROLLUPS_BUCKET", () -> salesRollupRepository.findBuckets(
+                SalesRollup.Granularity.DAY, today.minusDays(30).atStartOfDay(), today.atStartOfDay()));
+        assertUsesIndex("UK_PRODUCT_SALES_ROLLUPS_DATE_PRODUCT", () -> productSalesRollupRepository.findTopProducts(
+                today.minusDays(30), today, PageRequest.of(0, 10)));
+    }
+    
+    /**
+     * Runs the query, then explains every statement it issued. Each plan must avoid table
+     * scans and, when given, at least one of them must show the expected index or index
+     * condition in its access comment.
+     */
+    private void assertUsesIndex(String access, Runnable query) {
+        RecordingInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(RecordingInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), "query issued no statements");
+    
+        List<String> plans = statements.stream()
+                .map(sql -> jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                        (ResultSetExtractor<String>) rs -> rs.next() ? rs.getString(1) : ""))
+                .toList();
+        for (String plan : plans) {
+            assertFalse(plan.contains(".tableScan"), () -> "full scan in plan:\n" + plan);
+        }
+        if (access != null) {
+            assertTrue(plans.stream().anyMatch(plan -> plan.contains("PUBLIC." + access) || plan.contains(": " + access)),
+                    () -> "expected " + access + " in plans:\n" + String.join("\n\n", plans));
+        }
+    }
+    
+    public static class RecordingInspector implements StatementInspector {
+    
+        static final List<String> STATEMENTS = new ArrayList<>();
+    
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.shribalajiattire.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades databases that ddl-auto created before Flyway took over, the way
+ * {@code baseline-on-migrate} does in production: they are marked as V1 and every later
+ * script runs against whatever schema they already have.
+ */
+class SchemaMigrationTest {
+    
+    @Test
+    void preSeriesDatabase_ShouldBeBaselinedAndGainTheSeriesSchema() {
+        DataSource dataSource = database("pre-series");
+        createSchema(dataSource, "V1__baseline_schema.sql");
+    
+        assertEquals(4, migrate(dataSource));
+    
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(1, count(jdbc, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = 'PRODUCT_IMAGES' AND COLUMN_NAME = 'SRCSET'"));
+        assertEquals(2, count(jdbc, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES " +
+                "WHERE SEQUENCE_NAME IN ('ORDER_SEQ', 'ORDER_ITEM_SEQ')"));
+        assertEquals(2, count(jdbc, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_NAME IN ('SALES_ROLLUPS', 'PRODUCT_SALES_ROLLUPS')"));
+        assertEquals(2, count(jdbc, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE INDEX_NAME IN ('IDX_PRODUCT_IMAGES_URL', 'IDX_ORDERS_CREATED_AT')"));
+    }
+    
+    @Test
+    void seriesDatabase_ShouldBeCompletedWithoutFailingOnExistingObjects() {
+        DataSource dataSource = database("series");
+        createSchema(dataSource, "V1__baseline_schema.sql", "V3__catalog_and_order_series_schema.sql");
+        // ddl-auto also created the indexes the entities declare
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE INDEX idx_orders_user_created ON orders (user_id, created_at, id)");
+        jdbc.execute("CREATE INDEX idx_order_items_order_product " +
+                "ON order_items (order_id, product_id, quantity, unit_price_cents)");
+    
+        assertEquals(4, migrate(dataSource));
+        assertEquals(1, count(jdbc, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE INDEX_NAME = 'IDX_ORDERS_USER_CREATED'"));
+    }
+    
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:migration-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+    
+    /**
+     * Creates tables outside Flyway, standing in for a schema ddl-auto generated.
+     */
+    private static void createSchema(DataSource dataSource, String... scripts) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        for (String script : scripts) {
+            populator.addScript(new ClassPathResource("db/migration/h2/" + script));
+        }
+        populator.execute(dataSource);
+    }
+    
+    private static int migrate(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate()
+                .migrationsExecuted;
+    }
+    
+    private static long count(JdbcTemplate jdbc, String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.shribalajiattire.security;
+
+import com.shribalajiattire.model.User;
+import com.shribalajiattire.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "test-secret-key-that-is-long-enough-for-hmac-sha-256");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheSize", 100L);
+        tokenProvider.init();
+        filter = new JwtAuthenticationFilter(tokenProvider, new CustomUserDetailsService(userRepository));
+        
+        User customer = User.builder()
+                .id(7L)
+                .name("Test Customer")
+                .email("customer@test.com")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .build();
+        UserPrincipal principal = UserPrincipal.create(customer);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void doFilter_ShouldAuthenticateFromClaims_WithoutLoadingUserRow() throws Exception {
+        when(userRepository.findRoleById(7L)).thenReturn(Optional.of(User.Role.CUSTOMER));
+        
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), new MockFilterChain());
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("customer@test.com", principal.getEmail());
+        assertEquals("Test Customer", principal.getName());
+        assertEquals("ROLE_CUSTOMER", principal.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, never()).findById(anyLong());
+    }
+    
+    @Test
+    void doFilter_ShouldNotAuthenticate_WhenRoleChangedSinceIssue() throws Exception {
+        when(userRepository.findRoleById(7L)).thenReturn(Optional.of(User.Role.ADMIN));
+        
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), new MockFilterChain());
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+    
+    @Test
+    void doFilter_ShouldNotAuthenticate_WhenUserDeleted() throws Exception {
+        when(userRepository.findRoleById(7L)).thenReturn(Optional.empty());
+        
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), new MockFilterChain());
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+    
+    @Test
+    void doFilter_ShouldNotAuthenticate_WhenTokenTampered() throws Exception {
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        
+        filter.doFilter(request("Bearer " + tampered), new MockHttpServletResponse(), new MockFilterChain());
+        
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userRepository);
+    }
+    
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+}
@@ -0,0 +1,117 @@
+package com.shribalajiattire.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shribalajiattire.dto.CatalogImportResult;
+import com.shribalajiattire.dto.CursorPage;
+import com.shribalajiattire.dto.ProductJson;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports products next to older ones and pages through them under a size filter, which
+ * sorts by the facet index. The import's batches commit for real so that the index hears
+ * about them the way it does in production.
+ */
+@DataJpaTest(properties = "app.catalog.batch-size=2")
+@ActiveProfiles("h2")
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({CatalogService.class, ProductService.class, ProductPayloadCache.class, CatalogVersion.class,
+        ProductFacetIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogImportPagingTest {
+    
+    private static final int PAGE_SIZE = 2;
+    
+    @Autowired
+    private CatalogService catalogService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private FileStorageService fileStorageService;
+    
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+    
+    @Test
+    void importedProducts_ShouldPageAsNewest_UnderSizeFilter() throws IOException {
+        List<Long> medium = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            medium.add(insertProduct("OLD-" + i, LocalDateTime.of(2026, 3, 1, 9, 30).plusDays(i)));
+        }
+        productFacetIndex.rebuild();
+    
+        String csv = """
+                sku,name,price,sizes,stock
+                NEW-0,Cotton Kurta,999,M,1
+                NEW-1,Cotton Kurta,999,M|L,1
+                NEW-2,Cotton Kurta,999,L,1
+                NEW-3,Cotton Kurta,999,M,1
+                NEW-4,Cotton Kurta,999,M,1
+                """;
+        CatalogImportResult result = catalogService.importCatalog(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+        assertEquals(5, result.getImported());
+        for (String sku : List.of("NEW-0", "NEW-1", "NEW-3", "NEW-4")) {
+            medium.add(jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = ?", Long.class, sku));
+        }
+    
+        // Ids and creation times grow together, so newest first is highest id first
+        medium.sort(Comparator.reverseOrder());
+        assertEquals(medium, pageThrough(List.of("M")));
+    }
+    
+    private Long insertProduct(String sku, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO products (name, slug, sku, price_cents, currency, stock, active, created_at) " +
+                "VALUES ('Silk Kurta', ?, ?, 150000, 'INR', 5, TRUE, ?)", sku.toLowerCase(), sku, createdAt);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = ?", Long.class, sku);
+        jdbcTemplate.update("INSERT INTO product_sizes (product_id, size) VALUES (?, 'M')", id);
+        return id;
+    }
+    
+    private List<Long> pageThrough(List<String> sizes) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<ProductJson> page = productService.getProductsAfter(
+                    null, sizes, null, null, null, null, cursor, PAGE_SIZE);
+            for (ProductJson card : page.getContent()) {
+                ids.add(objectMapper.readTree(card.bytes()).get("id").asLong());
+            }
+            cursor = page.getNextCursor();
+            assertTrue(++pages <= 10, "cursor did not advance");
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -0,0 +1,129 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.CatalogImportResult;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "app.catalog.batch-size=2")
+@ActiveProfiles("h2")
+@Import(CatalogService.class)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+class CatalogServiceTest {
+    
+    @Autowired
+    private CatalogService catalogService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Test
+    void importCatalog_ShouldInsertNewSkusInBatchesAndSkipDuplicates() {
+        entityManager.persist(Product.builder()
+                .name("Silk Saree")
+                .slug("silk-saree")
+                .sku("SAREE-1")
+                .priceCents(500000L)
+                .build());
+        entityManager.flush();
+        
+        String csv = """
+                sku,name,description,price,sizes,colors,stock
+                SAREE-1,Silk Saree,Already in the catalog,5000,,,1
+                KURTA-1,Cotton Kurta,"Hand-loomed, breathable",1299.99,S|M|L,White|Blue,12
+                KURTA-2,Cotton Kurta,"Says ""festive""\nover two lines",1499,M,,3
+                KURTA-1,Cotton Kurta,Repeated in the same file,1299.99,,,1
+                DUPATTA-1,,Missing a name,499,,,5
+                DUPATTA-2,Chiffon Dupatta,,not-a-price,,,5
+                DUPATTA-3,Chiffon Dupatta,,499,,Pink,
+                """;
+        
+        CatalogImportResult result = catalogService.importCatalog(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+        entityManager.clear();
+        
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, result.getRejected());
+        assertEquals(2, result.getErrors().size());
+        
+        List<Product> kurtas = productRepository.findAll().stream()
+                .filter(product -> product.getSku().startsWith("KURTA"))
+                .toList();
+        assertEquals(2, kurtas.size());
+        Product kurta = kurtas.stream().filter(product -> product.getSku().equals("KURTA-1")).findFirst().orElseThrow();
+        assertEquals(129999L, kurta.getPriceCents());
+        assertEquals(List.of("S", "M", "L"), kurta.getSizes());
+        assertEquals(List.of("White", "Blue"), kurta.getColors());
+        assertEquals("Hand-loomed, breathable", kurta.getDescription());
+        Product festive = kurtas.stream().filter(product -> product.getSku().equals("KURTA-2")).findFirst().orElseThrow();
+        assertEquals("Says \"festive\"\nover two lines", festive.getDescription());
+        assertNotEquals(kurta.getSlug(), festive.getSlug());
+    }
+    
+    @Test
+    void importCatalog_ShouldRejectUnterminatedQuote_AndKeepEarlierRecords() {
+        String csv = """
+                sku,name,description,price,sizes,colors,stock
+                KURTA-3,Linen Kurta,Before the bad record,999,,,2
+                KURTA-4,Linen Kurta,"Never closed,999,,,2
+                KURTA-5,Linen Kurta,Swallowed by the open quote,999,,,2
+                """;
+        
+        CatalogImportResult result = catalogService.importCatalog(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+        
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertTrue(result.getErrors().get(0).contains("Unterminated quoted field"), result.getErrors().get(0));
+        assertTrue(productRepository.findAll().stream().anyMatch(product -> product.getSku().equals("KURTA-3")));
+    }
+    
+    @Test
+    void exportCatalog_ShouldRoundTripThroughJsonl() {
+        String jsonl = """
+                {"sku":"KURTA-1","name":"Cotton Kurta","price":1299.99,"sizes":["S","M"],"colors":["White"],"stock":4}
+                
+                {"sku":"KURTA-2","name":"Linen Kurta","description":"Summer, lightweight","price":1599,"stock":2}
+                {"sku":"KURTA-3","name":"Silk Kurta","price":2499}
+                {"sku":
+                """;
+        CatalogImportResult imported = catalogService.importCatalog(
+                new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)), CatalogFormat.JSONL);
+        assertEquals(3, imported.getImported());
+        assertEquals(1, imported.getRejected());
+        
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        catalogService.exportCatalog(csv, CatalogFormat.CSV);
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("sku,name,description,price,sizes,colors,stock", lines.get(0));
+        assertEquals("KURTA-1,Cotton Kurta,,1299.99,S|M,White,4", lines.get(1));
+        assertEquals("KURTA-2,Linen Kurta,\"Summer, lightweight\",1599.00,,,2", lines.get(2));
+        assertEquals(4, lines.size());
+        
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        catalogService.exportCatalog(exported, CatalogFormat.JSONL);
+        CatalogImportResult reimported = catalogService.importCatalog(
+                new ByteArrayInputStream(exported.toByteArray()), CatalogFormat.JSONL);
+        assertEquals(0, reimported.getImported());
+        assertEquals(3, reimported.getDuplicates());
+    }
+}
@@ -0,0 +1,57 @@
+package com.shribalajiattire.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionTest {
+    
+    private Instant now = Instant.parse("2026-01-01T10:00:00Z");
+    
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+    
+    @Test
+    void catalogETag_ShouldChange_OnCommittedWrite() {
+        CatalogVersion catalogVersion = new CatalogVersion(Duration.ofMinutes(10), clock);
+        String etag = catalogVersion.catalogETag();
+    
+        catalogVersion.onStockChanged(new ProductStockChangedEvent(1L, "silk-saree"));
+    
+        assertNotEquals(etag, catalogVersion.catalogETag());
+        assertEquals(catalogVersion.catalogVersion(), catalogVersion.productVersion(1L));
+        assertEquals(catalogVersion.productVersion(1L), catalogVersion.productVersion("silk-saree"));
+    }
+    
+    @Test
+    void catalogETag_ShouldRollOver_OncePerCacheTtl_WithoutWrites() {
+        CatalogVersion catalogVersion = new CatalogVersion(Duration.ofMinutes(10), clock);
+        now = Instant.parse("2026-01-01T10:01:00Z");
+        String etag = catalogVersion.catalogETag();
+    
+        now = Instant.parse("2026-01-01T10:09:00Z");
+        assertEquals(etag, catalogVersion.catalogETag());
+    
+        now = Instant.parse("2026-01-01T10:11:00Z");
+        assertNotEquals(etag, catalogVersion.catalogETag());
+    }
+}
@@ -0,0 +1,145 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.repository.ProductImageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FileStorageServiceTest {
+    
+    // SHA-256 of "same photo"
+    private static final String SAME_PHOTO_HASH = "cd11691e645ea094f874ed9af9dff9548540cbb0b27650afd76e771f40045c23";
+    
+    @TempDir
+    Path uploadDir;
+    
+    @Mock
+    private ProductImageRepository productImageRepository;
+    
+    private ExecutorService storageExecutor;
+    private FileStorageService fileStorageService;
+    
+    @BeforeEach
+    void setUp() {
+        storageExecutor = Executors.newFixedThreadPool(4);
+        fileStorageService = new FileStorageService(uploadDir.toString(),
+                new ImageDerivativeService(List.of(320)), productImageRepository, storageExecutor);
+        ReflectionTestUtils.setField(fileStorageService, "baseUrl", "/api/uploads");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        storageExecutor.shutdownNow();
+    }
+    
+    @Test
+    void storeFile_ShouldStoreIdenticalUploadsOnce() throws Exception {
+        String red = fileStorageService.storeFile(upload("red.JPG", "same photo"));
+        assertEquals("/api/uploads/" + SAME_PHOTO_HASH + ".jpg", red);
+        String blue = fileStorageService.storeFile(upload("blue.jpg", "same photo"));
+        String other = fileStorageService.storeFile(upload("other.jpg", "different photo"));
+        
+        assertEquals(red, blue);
+        assertNotEquals(red, other);
+        assertTrue(red.matches("/api/uploads/[0-9a-f]{64}\\.jpg"));
+        assertEquals(2, regularFiles());
+    }
+    
+    @Test
+    void loadFile_ShouldFanOutContentAddressedNames_AndKeepLegacyNamesFlat() {
+        String filename = SAME_PHOTO_HASH + ".jpg";
+        
+        assertEquals(uploadDir.resolve("cd/11/" + filename), fileStorageService.loadFile(filename));
+        assertEquals(uploadDir.resolve("cd/11/" + SAME_PHOTO_HASH + "-w320.jpg"),
+                fileStorageService.loadFile(ImageDerivativeService.variantName(filename, 320)));
+        assertEquals(uploadDir.resolve("3f2a9c1e-0b7d-4c1a-9e55-7f1d2b6a8c40.jpg"),
+                fileStorageService.loadFile("3f2a9c1e-0b7d-4c1a-9e55-7f1d2b6a8c40.jpg"));
+    }
+    
+    @Test
+    void deleteIfUnreferenced_ShouldKeepFile_WhileProductImagesReferenceIt() {
+        String url = fileStorageService.storeFile(upload("red.jpg", "same photo"));
+        fileStorageService.release(url);
+        when(productImageRepository.countByUrl(url)).thenReturn(1L, 0L);
+        
+        assertFalse(fileStorageService.deleteIfUnreferenced(url));
+        assertEquals(1, regularFiles());
+        
+        assertTrue(fileStorageService.deleteIfUnreferenced(url));
+        assertEquals(0, regularFiles());
+    }
+    
+    @Test
+    void deleteIfUnreferenced_ShouldKeepFile_WhileAnotherUploadIsNotCommittedYet() {
+        String committing = fileStorageService.storeFile(upload("red.jpg", "same photo"));
+        String failed = fileStorageService.storeFile(upload("copy.jpg", "same photo"));
+        
+        // The failed request cleans up before the other one has written its product_images row
+        fileStorageService.release(failed);
+        assertFalse(fileStorageService.deleteIfUnreferenced(failed));
+        assertEquals(1, regularFiles());
+        
+        when(productImageRepository.countByUrl(committing)).thenReturn(1L);
+        fileStorageService.release(committing);
+        assertFalse(fileStorageService.deleteIfUnreferenced(failed));
+        assertEquals(1, regularFiles());
+        verifyNoMoreInteractions(productImageRepository);
+    }
+    
+    @Test
+    void storeFiles_ShouldReturnUrlsInUploadOrder() {
+        List<MockMultipartFile> uploads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            uploads.add(upload("photo-" + i + ".jpg", "photo " + i));
+        }
+        
+        List<String> urls = fileStorageService.storeFiles(new ArrayList<>(uploads));
+        
+        for (int i = 0; i < uploads.size(); i++) {
+            assertEquals(fileStorageService.storeFile(uploads.get(i)), urls.get(i));
+        }
+        assertEquals(8, regularFiles());
+    }
+    
+    @Test
+    void storeFiles_ShouldRemoveWrittenFiles_WhenAnyUploadFails() throws Exception {
+        MockMultipartFile broken = mock(MockMultipartFile.class);
+        when(broken.getOriginalFilename()).thenReturn("broken.jpg");
+        when(broken.getInputStream()).thenThrow(new IOException("client disconnected"));
+        
+        assertThrows(RuntimeException.class, () -> fileStorageService.storeFiles(List.of(
+                upload("red.jpg", "same photo"), broken, upload("blue.jpg", "different photo"))));
+        assertEquals(0, regularFiles());
+    }
+    
+    private long regularFiles() {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            return files.filter(Files::isRegularFile).count();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static MockMultipartFile upload(String name, String content) {
+        return new MockMultipartFile("image", name, "image/jpeg", content.getBytes());
+    }
+}
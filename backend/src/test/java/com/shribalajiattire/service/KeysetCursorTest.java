@@ -0,0 +1,65 @@
+package com.shribalajiattire.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+    
+    private static final String SORT = "name:ASC";
+    
+    @Test
+    void decode_ShouldRoundTripEncodedCursor() {
+        KeysetCursor cursor = new KeysetCursor(SORT, "Silk Saree: Red & Gold", 42L);
+        
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode(), SORT));
+    }
+    
+    @Test
+    void decode_ShouldRoundTripValue_ContainingSeparators() {
+        KeysetCursor cursor = new KeysetCursor(SORT, "Chanderi Kurta\nHand-loomed\n", 42L);
+        KeysetCursor empty = new KeysetCursor(SORT, "", 42L);
+        
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode(), SORT));
+        assertEquals(empty, KeysetCursor.decode(empty.encode(), SORT));
+    }
+    
+    @Test
+    void encode_ShouldBeUrlSafe() {
+        String token = new KeysetCursor(SORT, "??>>~~", 7L).encode();
+        
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+    
+    @Test
+    void decode_ShouldReturnNull_ForBlankToken() {
+        assertNull(KeysetCursor.decode(null, SORT));
+        assertNull(KeysetCursor.decode(" ", SORT));
+    }
+    
+    @Test
+    void decode_ShouldReject_CursorIssuedForAnotherSort() {
+        String token = new KeysetCursor("priceCents:ASC", "150000", 42L).encode();
+        
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> KeysetCursor.decode(token, SORT));
+        assertEquals("Invalid cursor", ex.getMessage());
+    }
+    
+    @Test
+    void decode_ShouldReject_TamperedTokens() {
+        String valid = new KeysetCursor(SORT, "Silk Saree", 42L).encode();
+        
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(valid + "*", SORT));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode("not a cursor", SORT));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(raw(SORT + "\nSilk Saree\nforty-two"), SORT));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(raw(SORT + "\nSilk Saree"), SORT));
+        assertThrows(RuntimeException.class, () -> KeysetCursor.decode(raw(SORT + "\nSilk\nSaree\n42"), SORT));
+    }
+    
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,126 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.CartItemDTO;
+import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.ShippingAddressDTO;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@Import({OrderService.class, SalesRollupService.class})
+class OrderCheckoutQueryCountTest {
+    
+    private static final int CART_LINES = 20;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private User customer;
+    private final List<Long> productIds = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        customer = User.builder()
+                .name("Checkout Customer")
+                .email("checkout@test.com")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .build();
+        entityManager.persist(customer);
+        for (int i = 0; i < CART_LINES; i++) {
+            Product product = Product.builder()
+                    .name("Kurta " + i)
+                    .slug("kurta-" + i)
+                    .sku("KURTA-" + i)
+                    .priceCents(150000L)
+                    .stock(10)
+                    .build();
+            entityManager.persist(product);
+            productIds.add(product.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void createOrder_ShouldNotIssueStatementsPerCartLine() {
+        // The pooled id generators hit their sequences on the first two ids only
+        checkoutAndFlush(1);
+        checkoutAndFlush(1);
+        
+        long smallCart = checkoutAndFlush(2);
+        long largeCart = checkoutAndFlush(CART_LINES);
+        
+        // user + products + order insert + batched item insert + payment status update
+        assertEquals(5, smallCart);
+        assertEquals(smallCart, largeCart);
+    }
+    
+    @Test
+    void createOrder_ShouldRejectWholeCart_WhenAnyLineIsShort() {
+        CheckoutRequest request = checkout(3);
+        request.getCartItems().get(2).setQuantity(11);
+        
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> orderService.createOrder(customer.getId(), request));
+        assertEquals("Insufficient stock for product: Kurta 2", ex.getMessage());
+    }
+    
+    private long checkoutAndFlush(int lines) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        orderService.createOrder(customer.getId(), checkout(lines));
+        entityManager.flush();
+        entityManager.clear();
+        
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private CheckoutRequest checkout(int lines) {
+        List<CartItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            CartItemDTO item = new CartItemDTO();
+            item.setProductId(productIds.get(i));
+            item.setQuantity(1);
+            items.add(item);
+        }
+        
+        ShippingAddressDTO shipping = new ShippingAddressDTO();
+        shipping.setFullName("Test Customer");
+        shipping.setAddressLine1("1 Test Street");
+        shipping.setCity("Jaipur");
+        shipping.setState("Rajasthan");
+        shipping.setPostalCode("302001");
+        shipping.setCountry("India");
+        shipping.setPhone("9999999999");
+        
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCartItems(items);
+        request.setShipping(shipping);
+        request.setPaymentMethod("mock");
+        return request;
+    }
+}
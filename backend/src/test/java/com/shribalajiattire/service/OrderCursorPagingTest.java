@@ -0,0 +1,126 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.CursorPage;
+import com.shribalajiattire.dto.OrderDTO;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages through order history where several orders share a creation time and ids do not
+ * follow creation order, and expects every order exactly once, newest first.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(OrderService.class)
+class OrderCursorPagingTest {
+    
+    private static final int ORDERS = 23;
+    private static final int PAGE_SIZE = 5;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 3, 1, 9, 30);
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @MockBean
+    private SalesRollupService salesRollupService;
+    
+    private final List<Row> rows = new ArrayList<>();
+    private Long firstCustomer;
+    private Long secondCustomer;
+    
+    @BeforeEach
+    void setUp() {
+        firstCustomer = insertUser("first@test.com");
+        secondCustomer = insertUser("second@test.com");
+        
+        for (int i = 0; i < ORDERS; i++) {
+            // Scrambled ids, and four orders per creation time
+            long id = 1000 + (i * 7L) % ORDERS;
+            Long userId = i % 3 == 0 ? secondCustomer : firstCustomer;
+            LocalDateTime createdAt = BASE_TIME.plusMinutes(i / 4);
+            entityManager.createNativeQuery("INSERT INTO orders (id, user_id, total_cents, currency, full_name, " +
+                            "city, status, created_at) VALUES (?1, ?2, 150000, 'INR', 'Customer', 'Jaipur', " +
+                            "'DELIVERED', ?3)")
+                    .setParameter(1, id)
+                    .setParameter(2, userId)
+                    .setParameter(3, createdAt)
+                    .executeUpdate();
+            rows.add(new Row(id, userId, createdAt));
+        }
+        entityManager.clear();
+    }
+    
+    @Test
+    void getAllOrdersAfter_ShouldVisitEveryOrderOnce_NewestFirst() {
+        assertEquals(expected(null), pageThrough(cursor -> orderService.getAllOrdersAfter(cursor, PAGE_SIZE)));
+    }
+    
+    @Test
+    void getUserOrdersAfter_ShouldVisitEachCustomersOrdersOnce_NewestFirst() {
+        assertEquals(expected(firstCustomer),
+                pageThrough(cursor -> orderService.getUserOrdersAfter(firstCustomer, cursor, PAGE_SIZE)));
+        assertEquals(expected(secondCustomer),
+                pageThrough(cursor -> orderService.getUserOrdersAfter(secondCustomer, cursor, PAGE_SIZE)));
+    }
+    
+    @Test
+    void getAllOrdersAfter_ShouldRejectCursor_IssuedForAnotherSort() {
+        String productCursor = new KeysetCursor("priceCents:ASC", "150000", 1000L).encode();
+        
+        assertThrows(RuntimeException.class, () -> orderService.getAllOrdersAfter(productCursor, PAGE_SIZE));
+        assertThrows(RuntimeException.class,
+                () -> orderService.getUserOrdersAfter(firstCustomer, productCursor, PAGE_SIZE));
+    }
+    
+    private List<Long> pageThrough(Function<String, CursorPage<OrderDTO>> fetch) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<OrderDTO> page = fetch.apply(cursor);
+            page.getContent().forEach(order -> ids.add(order.getId()));
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            assertTrue(++pages <= ORDERS, "cursor did not advance");
+        } while (cursor != null);
+        return ids;
+    }
+    
+    private List<Long> expected(Long userId) {
+        return rows.stream()
+                .filter(row -> userId == null || row.userId().equals(userId))
+                .sorted(Comparator.comparing(Row::createdAt).thenComparing(Row::id).reversed())
+                .map(Row::id)
+                .toList();
+    }
+    
+    private Long insertUser(String email) {
+        entityManager.createNativeQuery("INSERT INTO users (name, email, password, role, created_at) " +
+                        "VALUES ('Customer', ?1, 'hash', 'CUSTOMER', CURRENT_TIMESTAMP)")
+                .setParameter(1, email)
+                .executeUpdate();
+        return ((Number) entityManager.createNativeQuery("SELECT id FROM users WHERE email = ?1")
+                .setParameter(1, email)
+                .getSingleResult()).longValue();
+    }
+    
+    private record Row(Long id, Long userId, LocalDateTime createdAt) {
+    }
+}
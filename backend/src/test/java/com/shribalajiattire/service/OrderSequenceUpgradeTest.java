@@ -0,0 +1,110 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.CartItemDTO;
+import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.OrderDTO;
+import com.shribalajiattire.dto.ShippingAddressDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application on a database that took orders under identity ids before the
+ * switch to pooled sequences, and checks that checkout keeps clear of the existing ids.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + OrderSequenceUpgradeTest.URL,
+        "spring.jpa.show-sql=false",
+        "app.upload.dir=${java.io.tmpdir}/sba-test-uploads"
+})
+@ActiveProfiles("h2")
+class OrderSequenceUpgradeTest {
+    
+    static final String URL = "jdbc:h2:mem:legacy-orders;DB_CLOSE_DELAY=-1";
+    
+    private static final int LEGACY_ORDERS = 120;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @MockBean
+    private PaymentIntentDispatcher paymentIntentDispatcher;
+    
+    /**
+     * Builds the pre-series schema outside Flyway, as ddl-auto did, and fills it with
+     * identity-numbered orders. The application's Flyway then baselines and upgrades it.
+     */
+    @BeforeAll
+    static void createLegacyDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__baseline_schema.sql"))
+                .execute(dataSource);
+    
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (name, email, password, role, created_at) " +
+                "VALUES ('Legacy Customer', 'legacy@test.com', 'hash', 'CUSTOMER', CURRENT_TIMESTAMP)");
+        jdbc.update("INSERT INTO products (name, slug, sku, price_cents, currency, stock, active, created_at) " +
+                "VALUES ('Legacy Kurta', 'legacy-kurta', 'LEGACY-001', 150000, 'INR', 100, TRUE, CURRENT_TIMESTAMP)");
+        for (int i = 0; i < LEGACY_ORDERS; i++) {
+            jdbc.update("INSERT INTO orders (user_id, total_cents, currency, status, created_at) " +
+                    "SELECT MIN(id), 150000, 'INR', 'DELIVERED', CURRENT_TIMESTAMP FROM users");
+            jdbc.update("INSERT INTO order_items (order_id, product_id, quantity, unit_price_cents) " +
+                    "SELECT MAX(o.id), MIN(p.id), 1, 150000 FROM orders o, products p");
+        }
+    }
+    
+    @Test
+    void createOrder_ShouldTakeIdsAboveExistingRows_AfterUpgrade() {
+        assertEquals(LEGACY_ORDERS, count("SELECT MAX(id) FROM orders"));
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'legacy@test.com'", Long.class);
+        Long productId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'LEGACY-001'", Long.class);
+    
+        OrderDTO first = orderService.createOrder(userId, checkout(productId));
+        OrderDTO second = orderService.createOrder(userId, checkout(productId));
+    
+        assertTrue(first.getId() > LEGACY_ORDERS, "order id " + first.getId());
+        assertTrue(second.getId() > first.getId());
+        assertEquals(LEGACY_ORDERS + 2, count("SELECT COUNT(*) FROM orders"));
+        assertEquals(LEGACY_ORDERS + 2, count("SELECT COUNT(*) FROM order_items"));
+        assertEquals(2, count("SELECT COUNT(*) FROM order_items WHERE id > " + LEGACY_ORDERS));
+    }
+    
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+    
+    private static CheckoutRequest checkout(Long productId) {
+        CartItemDTO item = new CartItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+    
+        ShippingAddressDTO shipping = new ShippingAddressDTO();
+        shipping.setFullName("Legacy Customer");
+        shipping.setAddressLine1("1 Test Street");
+        shipping.setCity("Jaipur");
+        shipping.setState("Rajasthan");
+        shipping.setPostalCode("302001");
+        shipping.setCountry("India");
+        shipping.setPhone("9999999999");
+    
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCartItems(List.of(item));
+        request.setShipping(shipping);
+        request.setPaymentMethod("mock");
+        return request;
+    }
+}
@@ -0,0 +1,125 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.CartItemDTO;
+import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.ShippingAddressDTO;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.model.SalesRollup;
+import com.shribalajiattire.model.User;
+import com.shribalajiattire.repository.OrderRepository;
+import com.shribalajiattire.repository.ProductRepository;
+import com.shribalajiattire.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:checkout-stress;LOCK_TIMEOUT=30000",
+        "spring.jpa.show-sql=false",
+        "app.upload.dir=${java.io.tmpdir}/sba-test-uploads"
+})
+@ActiveProfiles("h2")
+class OrderServiceConcurrencyTest {
+    
+    private static final int INITIAL_STOCK = 25;
+    private static final int THREADS = 16;
+    private static final int CHECKOUTS_PER_THREAD = 10;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Test
+    void createOrder_ShouldNeverOversell_UnderConcurrentCheckouts() throws Exception {
+        Product product = productRepository.save(Product.builder()
+                .name("Flash Sale Shirt")
+                .slug("flash-sale-shirt")
+                .sku("SALE-001")
+                .priceCents(99900L)
+                .stock(INITIAL_STOCK)
+                .build());
+        User customer = userRepository.findByEmail("customer@test.com").orElseThrow();
+        long ordersBefore = orderRepository.count();
+        long unitsBefore = salesRollupService.getReport(null, null, SalesRollup.Granularity.DAY, 0).getUnits();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < CHECKOUTS_PER_THREAD; i++) {
+                    try {
+                        orderService.createOrder(customer.getId(), checkout(product.getId()));
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException ex) {
+                        assertTrue(ex.getMessage().startsWith("Insufficient stock"), ex.getMessage());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        
+        assertEquals(INITIAL_STOCK, succeeded.get());
+        assertEquals(THREADS * CHECKOUTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(ordersBefore + INITIAL_STOCK, orderRepository.count());
+        // Every checkout upserts the same hour and day rollup rows
+        assertEquals(unitsBefore + INITIAL_STOCK,
+                salesRollupService.getReport(null, null, SalesRollup.Granularity.DAY, 0).getUnits());
+    }
+    
+    private static CheckoutRequest checkout(Long productId) {
+        CartItemDTO item = new CartItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        
+        ShippingAddressDTO shipping = new ShippingAddressDTO();
+        shipping.setFullName("Test Customer");
+        shipping.setAddressLine1("1 Test Street");
+        shipping.setCity("Jaipur");
+        shipping.setState("Rajasthan");
+        shipping.setPostalCode("302001");
+        shipping.setCountry("India");
+        shipping.setPhone("9999999999");
+        
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCartItems(List.of(item));
+        request.setShipping(shipping);
+        request.setPaymentMethod("mock");
+        return request;
+    }
+}
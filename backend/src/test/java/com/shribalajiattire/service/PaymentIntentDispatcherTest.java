@@ -0,0 +1,125 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.model.Order;
+import com.shribalajiattire.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentIntentDispatcherTest {
+    
+    private static final int POOL_SIZE = 1;
+    private static final int QUEUE_CAPACITY = 500;
+    
+    private PaymentService paymentService;
+    private OrderRepository orderRepository;
+    private OrderService orderService;
+    private ThreadPoolTaskExecutor boundedExecutor;
+    
+    @BeforeEach
+    void setUp() {
+        paymentService = mock(PaymentService.class);
+        orderRepository = mock(OrderRepository.class);
+        orderService = mock(OrderService.class);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (boundedExecutor != null) {
+            boundedExecutor.shutdown();
+        }
+    }
+    
+    @Test
+    void onOrderPlaced_ShouldLeaveOrderForRetry_WhenStripeFails() {
+        when(paymentService.createPaymentIntent(1L, 150000L, "INR"))
+                .thenThrow(new RuntimeException("Payment processing failed"))
+                .thenReturn("pi_order_1");
+        PaymentIntentDispatcher dispatcher = dispatcher(new SyncTaskExecutor());
+        
+        assertDoesNotThrow(() -> dispatcher.onOrderPlaced(new OrderPlacedEvent(1L, 150000L, "INR")));
+        verify(orderRepository, never()).attachPaymentId(anyLong(), anyString());
+        
+        when(orderRepository.findWithoutPaymentId(eq(Order.OrderStatus.PENDING), eq("stripe"), any(), any()))
+                .thenReturn(List.of(order(1L, LocalDateTime.now().minusMinutes(5))));
+        dispatcher.retryMissingPaymentIntents();
+        
+        verify(orderRepository).attachPaymentId(1L, "pi_order_1");
+        verify(orderService, never()).cancelUnpaidOrder(anyLong());
+    }
+    
+    @Test
+    void onOrderPlaced_ShouldNotFailCheckout_WhenExecutorRejects() throws InterruptedException {
+        // Same shape as the payment executor: bounded queue, default AbortPolicy
+        boundedExecutor = new ThreadPoolTaskExecutor();
+        boundedExecutor.setCorePoolSize(POOL_SIZE);
+        boundedExecutor.setMaxPoolSize(POOL_SIZE);
+        boundedExecutor.setQueueCapacity(QUEUE_CAPACITY);
+        boundedExecutor.initialize();
+        
+        CountDownLatch stripeBlocked = new CountDownLatch(1);
+        when(paymentService.createPaymentIntent(anyLong(), anyLong(), anyString())).thenAnswer(invocation -> {
+            stripeBlocked.await(10, TimeUnit.SECONDS);
+            return "pi_order_" + invocation.getArgument(0);
+        });
+        PaymentIntentDispatcher dispatcher = dispatcher(boundedExecutor);
+        
+        long rejected = POOL_SIZE + QUEUE_CAPACITY + 1;
+        for (long orderId = 1; orderId <= rejected; orderId++) {
+            long id = orderId;
+            assertDoesNotThrow(() -> dispatcher.onOrderPlaced(new OrderPlacedEvent(id, 150000L, "INR")));
+        }
+        stripeBlocked.countDown();
+        
+        boundedExecutor.getThreadPoolExecutor().shutdown();
+        assertTrue(boundedExecutor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS));
+        verify(orderRepository, times(POOL_SIZE + QUEUE_CAPACITY)).attachPaymentId(anyLong(), anyString());
+        verify(orderRepository, never()).attachPaymentId(eq(rejected), anyString());
+        
+        when(orderRepository.findWithoutPaymentId(eq(Order.OrderStatus.PENDING), eq("stripe"), any(), any()))
+                .thenReturn(List.of(order(rejected, LocalDateTime.now().minusMinutes(5))));
+        dispatcher.retryMissingPaymentIntents();
+        
+        verify(orderRepository).attachPaymentId(rejected, "pi_order_" + rejected);
+    }
+    
+    @Test
+    void retryMissingPaymentIntents_ShouldCancelOrders_PastExpiry() {
+        when(orderRepository.findWithoutPaymentId(eq(Order.OrderStatus.PENDING), eq("stripe"), any(),
+                any(Pageable.class))).thenReturn(List.of(order(7L, LocalDateTime.now().minusDays(2))));
+        
+        dispatcher(new SyncTaskExecutor()).retryMissingPaymentIntents();
+        
+        verify(orderService).cancelUnpaidOrder(7L);
+        verifyNoInteractions(paymentService);
+    }
+    
+    private PaymentIntentDispatcher dispatcher(TaskExecutor executor) {
+        return new PaymentIntentDispatcher(paymentService, orderRepository, orderService, executor,
+                Duration.ofMinutes(2), Duration.ofHours(24), 50);
+    }
+    
+    private static Order order(Long id, LocalDateTime createdAt) {
+        return Order.builder()
+                .id(id)
+                .totalCents(150000L)
+                .currency("INR")
+                .paymentMethod("stripe")
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.shribalajiattire.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives PaymentService against a local HTTP stand-in for the Stripe API.
+ */
+class PaymentServiceTest {
+    
+    private HttpServer stripeStandIn;
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    
+    private PaymentService paymentService;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        stripeStandIn = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stripeStandIn.createContext("/v1/payment_intents", this::handlePaymentIntent);
+        stripeStandIn.start();
+        
+        paymentService = new PaymentService();
+        ReflectionTestUtils.setField(paymentService, "stripeApiKey", "sk_test_stand_in");
+        ReflectionTestUtils.setField(paymentService, "stripeApiBase",
+                "http://127.0.0.1:" + stripeStandIn.getAddress().getPort());
+        ReflectionTestUtils.setField(paymentService, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(paymentService, "readTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(paymentService, "maxNetworkRetries", 2);
+        paymentService.initClient();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        stripeStandIn.stop(0);
+    }
+    
+    @Test
+    void createPaymentIntent_ShouldReturnIntentId_WithOrderScopedIdempotencyKey() {
+        String paymentId = paymentService.createPaymentIntent(42L, 129900L, "INR");
+        
+        assertEquals("pi_order_42", paymentId);
+        assertEquals(List.of("order-42-payment-intent"), idempotencyKeys);
+    }
+    
+    @Test
+    void createPaymentIntent_ShouldRetryTransientFailures_WithSameIdempotencyKey() {
+        failuresLeft.set(1);
+        
+        String paymentId = paymentService.createPaymentIntent(7L, 50000L, "INR");
+        
+        assertEquals("pi_order_7", paymentId);
+        assertEquals(List.of("order-7-payment-intent", "order-7-payment-intent"), idempotencyKeys);
+    }
+    
+    @Test
+    void createPaymentIntent_ShouldFail_WhenRetriesAreExhausted() {
+        failuresLeft.set(3);
+        
+        assertThrows(RuntimeException.class, () -> paymentService.createPaymentIntent(9L, 50000L, "INR"));
+        assertEquals(3, idempotencyKeys.size());
+    }
+    
+    private void handlePaymentIntent(HttpExchange exchange) throws IOException {
+        idempotencyKeys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+        String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String orderId = form.replaceAll(".*metadata\\[orderId\\]=(\\d+).*", "$1");
+        
+        if (failuresLeft.getAndDecrement() > 0) {
+            exchange.getResponseHeaders().add("Stripe-Should-Retry", "true");
+            respond(exchange, 503, "{\"error\":{\"type\":\"api_error\",\"message\":\"unavailable\"}}");
+        } else {
+            respond(exchange, 200, "{\"id\":\"pi_order_" + orderId + "\",\"object\":\"payment_intent\","
+                    + "\"client_secret\":\"pi_order_" + orderId + "_secret\",\"status\":\"requires_payment_method\"}");
+        }
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.config.CacheConfig;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "app.upload.dir=${java.io.tmpdir}/sba-test-uploads"
+})
+@ActiveProfiles("h2")
+class ProductCacheEvictorTest {
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @MockBean
+    private PaymentIntentDispatcher paymentIntentDispatcher;
+    
+    private Product product;
+    
+    @BeforeEach
+    void setUp() {
+        String slug = "evictor-saree-" + System.nanoTime();
+        product = productRepository.save(Product.builder()
+                .name("Evictor Saree")
+                .slug(slug)
+                .sku(slug.toUpperCase())
+                .priceCents(150000L)
+                .stock(5)
+                .build());
+    }
+    
+    @Test
+    void productChanged_ShouldEvictIdAndSlugEntries() {
+        CatalogVersion.VersionedKey[] keys = loadBothEntries();
+    
+        eventPublisher.publishEvent(ProductChangedEvent.of(product));
+    
+        assertEvicted(keys);
+    }
+    
+    @Test
+    void stockChanged_ShouldEvictIdAndSlugEntries() {
+        CatalogVersion.VersionedKey[] keys = loadBothEntries();
+    
+        eventPublisher.publishEvent(new ProductStockChangedEvent(product.getId(), product.getSlug()));
+    
+        assertEvicted(keys);
+    }
+    
+    @Test
+    void stockChanged_ShouldLeaveOtherProductsCached() {
+        CatalogVersion.VersionedKey[] keys = loadBothEntries();
+    
+        eventPublisher.publishEvent(new ProductStockChangedEvent(product.getId() + 1000, "some-other-product"));
+    
+        assertNotNull(cache(CacheConfig.PRODUCTS).get(keys[0]));
+        assertNotNull(cache(CacheConfig.PRODUCTS_BY_SLUG).get(keys[1]));
+    }
+    
+    @Test
+    void productCaches_ShouldBeRegisteredAsMetrics() {
+        productService.getProductById(product.getId());
+        productService.getProductById(product.getId());
+    
+        for (String name : List.of(CacheConfig.PRODUCTS, CacheConfig.PRODUCTS_BY_SLUG)) {
+            assertNotNull(meterRegistry.find("cache.gets").tag("cache", name).tag("result", "hit").functionCounter(),
+                    name);
+            assertNotNull(meterRegistry.find("cache.evictions").tag("cache", name).functionCounter(), name);
+        }
+        double hits = meterRegistry.get("cache.gets").tag("cache", CacheConfig.PRODUCTS).tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(hits >= 1, "hits " + hits);
+    }
+    
+    private CatalogVersion.VersionedKey[] loadBothEntries() {
+        productService.getProductById(product.getId());
+        productService.getProductBySlug(product.getSlug());
+    
+        CatalogVersion.VersionedKey byId = catalogVersion.productKey(product.getId());
+        CatalogVersion.VersionedKey bySlug = catalogVersion.productKey(product.getSlug());
+        assertNotNull(cache(CacheConfig.PRODUCTS).get(byId));
+        assertNotNull(cache(CacheConfig.PRODUCTS_BY_SLUG).get(bySlug));
+        return new CatalogVersion.VersionedKey[] {byId, bySlug};
+    }
+    
+    private void assertEvicted(CatalogVersion.VersionedKey[] keys) {
+        assertNull(cache(CacheConfig.PRODUCTS).get(keys[0]));
+        assertNull(cache(CacheConfig.PRODUCTS_BY_SLUG).get(keys[1]));
+    }
+    
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
@@ -0,0 +1,155 @@
+package com.shribalajiattire.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shribalajiattire.dto.CursorPage;
+import com.shribalajiattire.dto.ProductJson;
+import com.shribalajiattire.model.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages through a catalog where every sort key has duplicates, once through the seek
+ * query and once through the facet index, and expects each active product exactly once
+ * in sort order with ties broken by id. Names span two lines, as imported ones may.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProductService.class, ProductPayloadCache.class, CatalogVersion.class, ProductFacetIndex.class})
+class ProductCursorPagingTest {
+    
+    private static final int PRODUCTS = 22;
+    private static final int PAGE_SIZE = 4;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 3, 1, 9, 30);
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private FileStorageService fileStorageService;
+    
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+    
+    private final List<Row> rows = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Product.builder()
+                    .name("Kurta\n" + (i % 5))
+                    .slug("kurta-" + i)
+                    .sku("KURTA-" + i)
+                    .priceCents(100000L + (i % 4) * 50000L)
+                    .sizes(List.of(i % 2 == 0 ? "M" : "L"))
+                    .colors(List.of("White"))
+                    .active(i != 7)
+                    .build();
+            entityManager.persist(product);
+            entityManager.flush();
+            
+            // Three products share each creation time
+            LocalDateTime createdAt = BASE_TIME.plusMinutes(i / 3);
+            entityManager.createNativeQuery("UPDATE products SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, createdAt)
+                    .setParameter(2, product.getId())
+                    .executeUpdate();
+            rows.add(new Row(product.getId(), product.getName(), product.getPriceCents(), createdAt,
+                    i % 2 == 0, i != 7));
+        }
+        entityManager.clear();
+        productFacetIndex.rebuild();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"newest", "price-asc", "price-desc", "name-asc", "name-desc"})
+    void getProductsAfter_ShouldVisitEveryProductOnce_InSortOrder(String sort) throws IOException {
+        String sortParam = sort.equals("newest") ? null : sort;
+        
+        assertEquals(expected(sortParam, row -> true), pageThrough(sortParam, null));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"newest", "price-asc", "price-desc", "name-asc", "name-desc"})
+    void getProductsAfter_ShouldVisitEverySelectedProductOnce_WhenFilteredBySize(String sort) throws IOException {
+        String sortParam = sort.equals("newest") ? null : sort;
+        
+        assertEquals(expected(sortParam, Row::medium), pageThrough(sortParam, List.of("M")));
+    }
+    
+    @Test
+    void getProductsAfter_ShouldRejectCursor_IssuedForAnotherSort() {
+        CursorPage<ProductJson> byPrice = productService.getProductsAfter(
+                null, null, null, null, null, "price-asc", null, PAGE_SIZE);
+        
+        assertThrows(RuntimeException.class, () -> productService.getProductsAfter(
+                null, null, null, null, null, "name-asc", byPrice.getNextCursor(), PAGE_SIZE));
+        assertThrows(RuntimeException.class, () -> productService.getProductsAfter(
+                null, List.of("M"), null, null, null, "price-desc", byPrice.getNextCursor(), PAGE_SIZE));
+    }
+    
+    private List<Long> pageThrough(String sort, List<String> sizes) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<ProductJson> page = productService.getProductsAfter(
+                    null, sizes, null, null, null, sort, cursor, PAGE_SIZE);
+            for (ProductJson card : page.getContent()) {
+                ids.add(objectMapper.readTree(card.bytes()).get("id").asLong());
+            }
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            assertTrue(++pages <= PRODUCTS, "cursor did not advance");
+        } while (cursor != null);
+        return ids;
+    }
+    
+    private List<Long> expected(String sort, Predicate<Row> filter) {
+        Comparator<Row> order = switch (sort == null ? "newest" : sort) {
+            case "price-asc" -> Comparator.comparing(Row::priceCents).thenComparing(Row::id);
+            case "price-desc" -> Comparator.comparing(Row::priceCents).thenComparing(Row::id).reversed();
+            case "name-asc" -> Comparator.comparing(Row::name).thenComparing(Row::id);
+            case "name-desc" -> Comparator.comparing(Row::name).thenComparing(Row::id).reversed();
+            default -> Comparator.comparing(Row::createdAt).thenComparing(Row::id).reversed();
+        };
+        return rows.stream()
+                .filter(Row::active)
+                .filter(filter)
+                .sorted(order)
+                .map(Row::id)
+                .toList();
+    }
+    
+    private record Row(Long id, String name, Long priceCents, LocalDateTime createdAt, boolean medium,
+                       boolean active) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetIndexTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @InjectMocks
+    private ProductFacetIndex productFacetIndex;
+    
+    @BeforeEach
+    void setUp() {
+        productFacetIndex.rebuild();
+        
+        productFacetIndex.onProductChanged(product(1L, 149900L, List.of("S", "M"), List.of("White"), true));
+        productFacetIndex.onProductChanged(product(2L, 249900L, List.of("M", "L"), List.of("Blue"), true));
+        productFacetIndex.onProductChanged(product(3L, 349900L, List.of("L"), List.of("White", "Blue"), true));
+        productFacetIndex.onProductChanged(product(4L, 99900L, List.of("S"), List.of("Black"), false));
+    }
+    
+    private static ProductChangedEvent product(Long id, Long priceCents, List<String> sizes, List<String> colors,
+                                               boolean active) {
+        return new ProductChangedEvent(id, "Shirt " + id, "shirt-" + id, "SKU-" + id, null,
+                priceCents, sizes, colors, active, LocalDateTime.of(2026, 1, 1, 10, 0).plusDays(id));
+    }
+    
+    @Test
+    void select_ShouldUnionWithinFacetAndIntersectAcrossFacets() {
+        ProductFacetIndex.Selection selection = productFacetIndex.select(
+                null, List.of("S", "L"), List.of("White"), null, null);
+        
+        assertEquals(List.of(1L, 3L), selection.productIds());
+    }
+    
+    @Test
+    void select_ShouldCountEachFacetWithoutItsOwnSelection() {
+        ProductFacetIndex.Selection selection = productFacetIndex.select(
+                null, List.of("M"), List.of("Blue"), null, null);
+        
+        assertEquals(List.of(2L), selection.productIds());
+        assertEquals(Map.of("M", 1, "L", 2), selection.sizes());
+        assertEquals(Map.of("White", 1, "Blue", 1), selection.colors());
+        assertEquals(Map.of("2000-3000", 1), selection.priceRanges());
+    }
+    
+    @Test
+    void select_ShouldFilterPriceRangeAndRestrictToCandidates() {
+        ProductFacetIndex.Selection selection = productFacetIndex.select(
+                List.of(2L, 3L, 4L), null, null, 200000L, 300000L);
+        
+        assertEquals(List.of(2L), selection.productIds());
+        assertEquals(Map.of("2000-3000", 1, "3000-5000", 1), selection.priceRanges());
+    }
+    
+    @Test
+    void onProductChanged_ShouldMoveProductBetweenFacetValues() {
+        productFacetIndex.onProductChanged(product(1L, 149900L, List.of("XL"), List.of("Pink"), true));
+        
+        assertTrue(productFacetIndex.select(null, List.of("S"), null, null, null).productIds().isEmpty());
+        assertEquals(List.of(1L), productFacetIndex.select(null, null, List.of("Pink"), null, null).productIds());
+    }
+    
+    @Test
+    void sortedIds_ShouldOrderBySortKeyThenId_AndSeekPastCursor() {
+        productFacetIndex.onProductChanged(product(5L, 249900L, List.of("M"), List.of("Black"), true));
+        RoaringBitmap matches = productFacetIndex.select(null, List.of("M", "L"), null, null, null).matches();
+        Sort.Order priceDesc = Sort.Order.desc("priceCents");
+        
+        assertEquals(List.of(3L, 5L, 2L, 1L), productFacetIndex.sortedIds(matches, priceDesc, null, null));
+        assertEquals(List.of(1L, 2L, 5L, 3L),
+                productFacetIndex.sortedIds(matches, Sort.Order.asc("priceCents"), null, null));
+        assertEquals(List.of(2L, 1L), productFacetIndex.sortedIds(matches, priceDesc, 249900L, 5L));
+        assertEquals(List.of(5L, 3L, 2L, 1L),
+                productFacetIndex.sortedIds(matches, Sort.Order.desc("createdAt"), null, null));
+        assertEquals(List.of(1L, 2L, 3L, 5L),
+                productFacetIndex.sortedIds(matches, Sort.Order.asc("name"), null, null));
+    }
+}
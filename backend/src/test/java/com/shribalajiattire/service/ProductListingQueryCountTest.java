@@ -0,0 +1,115 @@
+package com.shribalajiattire.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.ProductJson;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.model.ProductImage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProductService.class, ProductPayloadCache.class, CatalogVersion.class})
+class ProductListingQueryCountTest {
+    
+    private static final int PAGE_SIZE = 12;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private FileStorageService fileStorageService;
+    
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+    
+    @MockBean
+    private ProductFacetIndex productFacetIndex;
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PAGE_SIZE + 3; i++) {
+            Product product = Product.builder()
+                    .name("Shirt " + i)
+                    .slug("shirt-" + i)
+                    .sku("SKU-" + i)
+                    .priceCents(100000L + i)
+                    .sizes(List.of("S", "M", "L"))
+                    .colors(List.of("White", "Blue"))
+                    .build();
+            product.addImage(ProductImage.builder().url("/img/" + i + "-b.jpg").displayOrder(1).build());
+            product.addImage(ProductImage.builder().url("/img/" + i + "-a.jpg").displayOrder(0).build());
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void getProductCards_ShouldLoadPageCollectionsInFixedNumberOfStatements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        Page<ProductJson> page = productService.getProductCards(
+                null, null, null, null, null, "price-asc", 0, PAGE_SIZE);
+        
+        assertEquals(PAGE_SIZE, page.getContent().size());
+        ProductDTO first = objectMapper.readValue(page.getContent().get(0).bytes(), ProductDTO.class);
+        assertEquals(Set.of("S", "M", "L"), new HashSet<>(first.getSizes()));
+        assertEquals(Set.of("White", "Blue"), new HashSet<>(first.getColors()));
+        assertEquals(List.of("/img/0-a.jpg", "/img/0-b.jpg"), first.getImages());
+        
+        // page query + count query + one batched query each for sizes, colors and images
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void getProductCards_ShouldSkipCollectionQueries_WhenCardsAreCached() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Page<ProductJson> first = productService.getProductCards(
+                null, null, null, null, null, "price-asc", 0, PAGE_SIZE);
+        entityManager.clear();
+        statistics.clear();
+        
+        Page<ProductJson> second = productService.getProductCards(
+                null, null, null, null, null, "price-asc", 0, PAGE_SIZE);
+        
+        assertEquals(PAGE_SIZE, second.getContent().size());
+        assertSame(first.getContent().get(0), second.getContent().get(0));
+        ProductDTO card = objectMapper.readValue(second.getContent().get(0).bytes(), ProductDTO.class);
+        assertEquals("shirt-0", card.getSlug());
+        assertEquals(List.of("/img/0-a.jpg", "/img/0-b.jpg"), card.getImages());
+        
+        // page query + count query only
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,67 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+    
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findSearchableFields()).thenReturn(Collections.emptyList());
+        productSearchIndex.rebuild();
+        
+        productSearchIndex.onProductChanged(product(1L, "Classic White Formal Shirt", "SBA-0001",
+                "Premium cotton formal shirt perfect for office wear.", true));
+        productSearchIndex.onProductChanged(product(2L, "Blue Oxford Business Shirt", "SBA-0002",
+                "Oxford weave business shirt with a white collar.", true));
+        productSearchIndex.onProductChanged(product(3L, "Pink Casual Shirt", "SBA-0003",
+                "Comfortable casual shirt in soft pink.", true));
+    }
+    
+    private static ProductChangedEvent product(Long id, String name, String sku, String description, boolean active) {
+        return new ProductChangedEvent(id, name, "product-" + id, sku, description,
+                199900L, List.of(), List.of(), active, null);
+    }
+    
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 2L), productSearchIndex.search("white"));
+    }
+    
+    @Test
+    void search_ShouldMatchPrefixesAndRequireEveryToken() {
+        assertEquals(List.of(2L), productSearchIndex.search("oxf busi"));
+        assertEquals(List.of(3L), productSearchIndex.search("SBA-0003"));
+        assertTrue(productSearchIndex.search("pink oxford").isEmpty());
+    }
+    
+    @Test
+    void search_ShouldDropInactiveAndReindexUpdatedProducts() {
+        productSearchIndex.onProductChanged(product(3L, "Pink Casual Shirt", "SBA-0003",
+                "Comfortable casual shirt in soft pink.", false));
+        productSearchIndex.onProductChanged(product(1L, "Classic Ivory Formal Shirt", "SBA-0001",
+                "Premium cotton formal shirt perfect for office wear.", true));
+        
+        assertTrue(productSearchIndex.search("pink").isEmpty());
+        assertEquals(List.of(2L), productSearchIndex.search("white"));
+        assertEquals(List.of(1L), productSearchIndex.search("ivory"));
+    }
+}
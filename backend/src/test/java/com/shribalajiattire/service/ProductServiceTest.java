@@ -1,6 +1,8 @@
 package com.shribalajiattire.service;
 
+import com.shribalajiattire.dto.CreateProductRequest;
 import com.shribalajiattire.dto.ProductDTO;
+import com.shribalajiattire.dto.ProductJson;
 import com.shribalajiattire.model.Product;
 import com.shribalajiattire.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,12 +11,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +41,21 @@ class ProductServiceTest {
     @Mock
     private FileStorageService fileStorageService;
     
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+    
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+    
+    @Mock
+    private ProductPayloadCache productPayloadCache;
+    
+    @Mock
+    private CatalogVersion catalogVersion;
+    
     @InjectMocks
     private ProductService productService;
     
@@ -80,4 +110,75 @@ class ProductServiceTest {
         assertEquals("test-shirt", result.getSlug());
         verify(productRepository, times(1)).findBySlug("test-shirt");
     }
+    
+    @Test
+    void updateProduct_ShouldDeleteStoredImages_WhenTransactionFails() {
+        List<MultipartFile> images = List.of(new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1}));
+        when(fileStorageService.storeFiles(images)).thenReturn(List.of("/api/uploads/a.jpg"));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        
+        assertThrows(RuntimeException.class,
+                () -> productService.updateProduct(999L, new CreateProductRequest(), images));
+        verify(fileStorageService).release("/api/uploads/a.jpg");
+        verify(fileStorageService).deleteIfUnreferenced("/api/uploads/a.jpg");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void getProductCards_ShouldLoadOnlyPageRows_WhenFilteredBySize() {
+        RoaringBitmap matches = RoaringBitmap.bitmapOf(1, 2, 3, 4, 5);
+        when(productFacetIndex.select(null, List.of("M"), null, null, null))
+                .thenReturn(new ProductFacetIndex.Selection(matches, Map.of(), Map.of(), Map.of()));
+        when(productFacetIndex.sortedIds(matches, Sort.Order.desc("createdAt"), null, null))
+                .thenReturn(List.of(5L, 4L, 3L, 2L, 1L));
+        Product second = Product.builder().id(2L).active(true).build();
+        Product third = Product.builder().id(3L).active(true).build();
+        when(productRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(second, third));
+        
+        Page<ProductJson> page = productService.getProductCards(null, List.of("M"), null, null, null, null, 1, 2);
+        
+        assertEquals(5, page.getTotalElements());
+        verify(productPayloadCache).cards(eq(List.of(third, second)), anyLong(), any());
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void getProductCards_ShouldLoadOnlyPageRows_WhenRankedByRelevance() {
+        when(productSearchIndex.search("silk")).thenReturn(List.of(9L, 7L, 5L, 3L, 1L));
+        when(productFacetIndex.select(List.of(9L, 7L, 5L, 3L, 1L), null, null, 100000L, null))
+                .thenReturn(new ProductFacetIndex.Selection(RoaringBitmap.bitmapOf(1, 3, 5, 7), Map.of(), Map.of(),
+                        Map.of()));
+        Product fifth = Product.builder().id(5L).active(true).build();
+        Product seventh = Product.builder().id(7L).active(true).build();
+        when(productRepository.findAllById(List.of(7L, 5L))).thenReturn(List.of(fifth, seventh));
+        
+        Page<ProductJson> page = productService.getProductCards("silk", null, null, 1000.0, null, null, 0, 2);
+        
+        assertEquals(4, page.getTotalElements());
+        verify(productPayloadCache).cards(eq(List.of(seventh, fifth)), anyLong(), any());
+        verify(productRepository, never()).findAll(any(Specification.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void getProductCards_ShouldSortSearchHitsInIndex_WhenSortIsGiven() {
+        when(productSearchIndex.search("silk")).thenReturn(List.of(9L, 7L, 5L, 3L, 1L));
+        RoaringBitmap matches = RoaringBitmap.bitmapOf(1, 3, 5, 7, 9);
+        when(productFacetIndex.select(List.of(9L, 7L, 5L, 3L, 1L), null, null, null, null))
+                .thenReturn(new ProductFacetIndex.Selection(matches, Map.of(), Map.of(), Map.of()));
+        when(productFacetIndex.sortedIds(matches, Sort.Order.asc("priceCents"), null, null))
+                .thenReturn(List.of(3L, 1L, 9L, 5L, 7L));
+        Product ninth = Product.builder().id(9L).active(true).build();
+        Product fifth = Product.builder().id(5L).active(true).build();
+        when(productRepository.findAllById(List.of(9L, 5L))).thenReturn(List.of(fifth, ninth));
+        
+        Page<ProductJson> page = productService.getProductCards("silk", null, null, null, null, "price-asc", 1, 2);
+        
+        assertEquals(5, page.getTotalElements());
+        verify(productPayloadCache).cards(eq(List.of(ninth, fifth)), anyLong(), any());
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
 }
@@ -0,0 +1,130 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.CartItemDTO;
+import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.OrderDTO;
+import com.shribalajiattire.dto.SalesReportDTO;
+import com.shribalajiattire.dto.ShippingAddressDTO;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.model.SalesRollup;
+import com.shribalajiattire.model.User;
+import com.shribalajiattire.repository.ProductRepository;
+import com.shribalajiattire.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sales-rollups",
+        "spring.jpa.show-sql=false",
+        "app.upload.dir=${java.io.tmpdir}/sba-test-uploads"
+})
+@ActiveProfiles("h2")
+class SalesRollupServiceTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @MockBean
+    private PaymentIntentDispatcher paymentIntentDispatcher;
+    
+    @Test
+    void rollups_ShouldFollowOrderLifecycle_AndMatchRecompute() {
+        Product kurta = saveProduct("Rollup Kurta", "ROLLUP-1", 100000L);
+        Product dupatta = saveProduct("Rollup Dupatta", "ROLLUP-2", 25000L);
+        User customer = userRepository.findByEmail("customer@test.com").orElseThrow();
+        LocalDate today = LocalDate.now();
+        
+        OrderDTO paid = orderService.createOrder(customer.getId(),
+                checkout("mock", item(kurta, 2), item(dupatta, 1)));
+        OrderDTO pending = orderService.createOrder(customer.getId(), checkout("stripe", item(dupatta, 4)));
+        assertThrows(RuntimeException.class,
+                () -> orderService.createOrder(customer.getId(), checkout("mock", item(kurta, 1000))));
+        
+        SalesReportDTO report = salesRollupService.getReport(today, today, SalesRollup.Granularity.DAY, 5);
+        assertEquals(2, report.getOrderCount());
+        assertEquals(1, report.getPaidOrderCount());
+        assertEquals(225000L, report.getRevenueCents());
+        assertEquals(3, report.getUnits());
+        assertEquals(1, report.getBuckets().size());
+        assertEquals(List.of("ROLLUP-1", "ROLLUP-2"),
+                report.getTopProducts().stream().map(SalesReportDTO.ProductSales::getSku).toList());
+        
+        orderService.updateOrderStatus(paid.getId(), "CANCELLED");
+        orderService.updateOrderStatus(pending.getId(), "PAID");
+        orderService.updateOrderStatus(pending.getId(), "SHIPPED");
+        
+        report = salesRollupService.getReport(today, today, SalesRollup.Granularity.HOUR, 5);
+        assertEquals(2, report.getOrderCount());
+        assertEquals(1, report.getPaidOrderCount());
+        assertEquals(100000L, report.getRevenueCents());
+        assertEquals(4, report.getUnits());
+        SalesReportDTO.ProductSales top = report.getTopProducts().get(0);
+        assertEquals("ROLLUP-2", top.getSku());
+        assertEquals(4, top.getUnits());
+        assertEquals(0, report.getTopProducts().get(1).getUnits());
+        
+        OrderService.OrderAnalytics analytics = orderService.getAnalytics();
+        assertEquals(100000L, analytics.revenueCents());
+        assertEquals(2L, analytics.orderCount());
+        
+        salesRollupService.recompute(today.minusDays(1), today);
+        SalesReportDTO recomputed = salesRollupService.getReport(today, today, SalesRollup.Granularity.HOUR, 1);
+        assertEquals(report.getOrderCount(), recomputed.getOrderCount());
+        assertEquals(report.getPaidOrderCount(), recomputed.getPaidOrderCount());
+        assertEquals(report.getRevenueCents(), recomputed.getRevenueCents());
+        assertEquals(report.getUnits(), recomputed.getUnits());
+        assertEquals(report.getBuckets(), recomputed.getBuckets());
+        assertEquals(List.of(top), recomputed.getTopProducts());
+    }
+    
+    private Product saveProduct(String name, String sku, long priceCents) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .slug(sku.toLowerCase())
+                .sku(sku)
+                .priceCents(priceCents)
+                .stock(100)
+                .build());
+    }
+    
+    private static CartItemDTO item(Product product, int quantity) {
+        CartItemDTO item = new CartItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        return item;
+    }
+    
+    private static CheckoutRequest checkout(String paymentMethod, CartItemDTO... items) {
+        ShippingAddressDTO shipping = new ShippingAddressDTO();
+        shipping.setFullName("Test Customer");
+        shipping.setAddressLine1("1 Test Street");
+        shipping.setCity("Jaipur");
+        shipping.setState("Rajasthan");
+        shipping.setPostalCode("302001");
+        shipping.setCountry("India");
+        shipping.setPhone("9999999999");
+        
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCartItems(List.of(items));
+        request.setShipping(shipping);
+        request.setPaymentMethod(paymentMethod);
+        return request;
+    }
+}
@@ -0,0 +1,146 @@
+package com.shribalajiattire.service;
+
+import com.shribalajiattire.dto.CartItemDTO;
+import com.shribalajiattire.dto.CheckoutRequest;
+import com.shribalajiattire.dto.OrderDTO;
+import com.shribalajiattire.dto.ShippingAddressDTO;
+import com.shribalajiattire.model.Order;
+import com.shribalajiattire.model.Product;
+import com.shribalajiattire.model.User;
+import com.shribalajiattire.repository.OrderRepository;
+import com.shribalajiattire.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks out with Stripe, lets the order go without a PaymentIntent past expiry and
+ * expects the retry job to cancel it and give its stock back.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({OrderService.class, SalesRollupService.class})
+@RecordApplicationEvents
+class UnpaidOrderExpiryTest {
+    
+    private static final int INITIAL_STOCK = 10;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ApplicationEvents applicationEvents;
+    
+    private User customer;
+    private Product kurta;
+    private Product saree;
+    
+    @BeforeEach
+    void setUp() {
+        customer = User.builder()
+                .name("Stripe Customer")
+                .email("stripe@test.com")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .build();
+        entityManager.persist(customer);
+        kurta = product("KURTA-1", "cotton-kurta");
+        saree = product("SAREE-1", "silk-saree");
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void retryMissingPaymentIntents_ShouldRestockExpiredOrders() {
+        OrderDTO order = orderService.createOrder(customer.getId(),
+                checkout(line(kurta, 2), line(saree, 3), line(kurta, 1)));
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(INITIAL_STOCK - 3, stockOf(kurta));
+        assertEquals(INITIAL_STOCK - 3, stockOf(saree));
+    
+        entityManager.createNativeQuery("UPDATE orders SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, LocalDateTime.now().minusDays(2))
+                .setParameter(2, order.getId())
+                .executeUpdate();
+        entityManager.clear();
+        applicationEvents.clear();
+    
+        PaymentService paymentService = mock(PaymentService.class);
+        new PaymentIntentDispatcher(paymentService, orderRepository, orderService, new SyncTaskExecutor(),
+                Duration.ofMinutes(2), Duration.ofHours(24), 50).retryMissingPaymentIntents();
+        entityManager.flush();
+        entityManager.clear();
+    
+        assertEquals(INITIAL_STOCK, stockOf(kurta));
+        assertEquals(INITIAL_STOCK, stockOf(saree));
+        assertEquals(Order.OrderStatus.CANCELLED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertEquals(List.of(kurta.getId(), saree.getId()), applicationEvents.stream(ProductStockChangedEvent.class)
+                .map(ProductStockChangedEvent::productId)
+                .toList());
+        verifyNoInteractions(paymentService);
+    }
+    
+    private Product product(String sku, String slug) {
+        Product product = Product.builder()
+                .name(sku)
+                .slug(slug)
+                .sku(sku)
+                .priceCents(150000L)
+                .stock(INITIAL_STOCK)
+                .build();
+        entityManager.persist(product);
+        return product;
+    }
+    
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+    
+    private static CartItemDTO line(Product product, int quantity) {
+        CartItemDTO item = new CartItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        return item;
+    }
+    
+    private static CheckoutRequest checkout(CartItemDTO... items) {
+        ShippingAddressDTO shipping = new ShippingAddressDTO();
+        shipping.setFullName("Stripe Customer");
+        shipping.setAddressLine1("1 Test Street");
+        shipping.setCity("Jaipur");
+        shipping.setState("Rajasthan");
+        shipping.setPostalCode("302001");
+        shipping.setCountry("India");
+        shipping.setPhone("9999999999");
+    
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCartItems(List.of(items));
+        request.setShipping(shipping);
+        request.setPaymentMethod("stripe");
+        return request;
+    }
+}
@@ -15,6 +15,9 @@ const ProductCard = ({ product, onAddToCart }) => {
         <div className="aspect-w-3 aspect-h-4 bg-gray-200 overflow-hidden">
           <img
             src={product.images?.[0] || 'https://via.placeholder.com/600x800'}
+            srcSet={product.imageSrcsets?.[0] || undefined}
+            sizes="(min-width: 1024px) 25vw, (min-width: 640px) 50vw, 100vw"
+            loading="lazy"
             alt={product.name}
             className="w-full h-64 object-cover group-hover:scale-105 transition-transform duration-300"
           />